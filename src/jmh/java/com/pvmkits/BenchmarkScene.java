@@ -0,0 +1,143 @@
+package com.pvmkits;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Scopes;
+import com.pvmkits.core.BossHandler;
+import com.pvmkits.core.SceneSnapshot;
+import com.pvmkits.replay.ReplayClient;
+import net.runelite.api.Client;
+import net.runelite.api.events.AnimationChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.NpcSpawned;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.ui.overlay.OverlayManager;
+import org.mockito.Answers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * A started PvmKitsPlugin wired to a {@link ReplayClient} and filled with a
+ * synthetic scene. Every {@code bossEvery}-th NPC is a boss NPC, the one after
+ * it a boss add where the boss has any (sleepwalkers), the rest are unrelated
+ * NPCs the plugin must skip.
+ */
+final class BenchmarkScene {
+
+    // An NPC ID no boss handler declares
+    static final int FILLER_NPC_ID = 3106;
+
+    private static final GameTick GAME_TICK = new GameTick();
+    private final AnimationChanged animationChanged = new AnimationChanged();
+    private static final int TILE_SIZE = 128;
+    private static final int SCENE_COLUMNS = 48;
+
+    final ReplayClient replayClient;
+    final Injector injector;
+    final PvmKitsPlugin plugin;
+    final BossHandler handler;
+
+    private final List<ReplayClient.ReplayNpc> bossNpcs = new ArrayList<>();
+    private final int[] attackAnimations;
+    private int tick;
+
+    BenchmarkScene(String boss, int npcCount, int bossEvery) throws Exception {
+        replayClient = new ReplayClient();
+        PvmKitsConfig config = mock(PvmKitsConfig.class, Answers.CALLS_REAL_METHODS);
+        injector = Guice.createInjector(binder -> {
+            binder.bind(Client.class).toInstance(replayClient.getClient());
+            binder.bind(PvmKitsConfig.class).toInstance(config);
+            binder.bind(OverlayManager.class).toInstance(mock(OverlayManager.class));
+            binder.bind(ClientThread.class).toInstance(mock(ClientThread.class));
+            binder.bind(ConfigManager.class).toInstance(mock(ConfigManager.class));
+            binder.bind(EventBus.class).toInstance(mock(EventBus.class));
+            binder.bind(PvmKitsPlugin.class).in(Scopes.SINGLETON);
+        });
+
+        plugin = injector.getInstance(PvmKitsPlugin.class);
+        plugin.startUp();
+
+        handler = "phosani".equals(boss) ? plugin.getPhosaniHandler() : plugin.getYamaHandler();
+        attackAnimations = handler.getAnimationIds();
+        int[] bossIds = handler.getNpcIds();
+        int[] addIds = handler == plugin.getPhosaniHandler()
+                ? plugin.getPhosaniHandler().getDefinition().getSceneNpcIds(SceneSnapshot.Group.SLEEPWALKER)
+                : new int[0];
+
+        replayClient.beginTick();
+        for (int i = 0; i < npcCount; i++) {
+            ReplayClient.ReplayNpc npc = replayClient.seeNpc(i);
+            int group = i % bossEvery;
+            if (group == 0) {
+                npc.id = bossIds[(i / bossEvery) % bossIds.length];
+                bossNpcs.add(npc);
+            } else if (group == 1 && addIds.length > 0) {
+                npc.id = addIds[(i / bossEvery) % addIds.length];
+            } else {
+                npc.id = FILLER_NPC_ID;
+            }
+
+            // Spread NPCs over a grid around the scene center
+            npc.x = ReplayClient.SCENE_CENTER + ((i % SCENE_COLUMNS) - SCENE_COLUMNS / 2) * TILE_SIZE;
+            npc.y = ReplayClient.SCENE_CENTER + ((i / SCENE_COLUMNS) - SCENE_COLUMNS / 2) * TILE_SIZE;
+        }
+        replayClient.endTick();
+
+        for (int i = 0; i < npcCount; i++) {
+            plugin.onNpcSpawned(new NpcSpawned(replayClient.getNpc(i).proxy));
+        }
+        tick();
+    }
+
+    /**
+     * Advance one game tick: boss NPCs take turns playing attack animations,
+     * dispatched as animation events, then the plugin runs its tick
+     */
+    void tick() {
+        tick++;
+        replayClient.setTickCount(tick);
+        advanceAnimations(true);
+        plugin.onGameTick(GAME_TICK);
+    }
+
+    /**
+     * Advance one game tick, calling only the active handler (the scene
+     * snapshot keeps the previous tick's NPC lists)
+     */
+    void tickHandlerOnly() {
+        tick++;
+        replayClient.setTickCount(tick);
+        advanceAnimations(false);
+        handler.onGameTick(GAME_TICK);
+    }
+
+    // Animation events go through the plugin's filtering, or straight to the handler
+    private void advanceAnimations(boolean throughPlugin) {
+        for (int i = 0; i < bossNpcs.size(); i++) {
+            ReplayClient.ReplayNpc npc = bossNpcs.get(i);
+            // Each boss attacks on its own offset in a 6 tick cycle
+            boolean attacking = attackAnimations.length > 0 && (tick + i) % 6 == 0;
+            int animation = attacking ? attackAnimations[(tick / 6) % attackAnimations.length] : -1;
+            if (animation == npc.animation) {
+                continue;
+            }
+
+            npc.animation = animation;
+            animationChanged.setActor(npc.proxy);
+            if (throughPlugin) {
+                plugin.onAnimationChanged(animationChanged);
+            } else if (animation != -1) {
+                handler.onAnimationChanged(animationChanged);
+            }
+        }
+    }
+
+    void shutDown() throws Exception {
+        plugin.shutDown();
+    }
+}
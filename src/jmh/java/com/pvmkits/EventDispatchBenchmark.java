@@ -0,0 +1,149 @@
+package com.pvmkits;
+
+import com.pvmkits.replay.ReplayClient;
+import net.runelite.api.GameObject;
+import net.runelite.api.NPC;
+import net.runelite.api.Projectile;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.AnimationChanged;
+import net.runelite.api.events.GameObjectDespawned;
+import net.runelite.api.events.GameObjectSpawned;
+import net.runelite.api.events.GraphicChanged;
+import net.runelite.api.events.ProjectileMoved;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cost per event of PvmKitsPlugin dispatch under event storms, with a boss
+ * active. Most events come from unrelated NPCs, objects and projectiles, as in
+ * a busy scene, and must be dropped cheaply.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDispatchBenchmark {
+
+    private static final int STORM_SIZE = 1024;
+    private static final int SCENE_NPCS = 200;
+
+    // Spore object, and one no boss tracks
+    private static final int SPORE_OBJECT_ID = 37739;
+    private static final int OTHER_OBJECT_ID = 1276;
+
+    @Param({ "yama", "phosani" })
+    public String boss;
+
+    private BenchmarkScene scene;
+    private AnimationChanged[] animationEvents;
+    private GraphicChanged[] graphicEvents;
+    private ProjectileMoved[] projectileEvents;
+    private GameObjectSpawned[] objectSpawnedEvents;
+    private GameObjectDespawned[] objectDespawnedEvents;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        scene = new BenchmarkScene(boss, SCENE_NPCS, 10);
+        Random random = new Random(42);
+        int[] animations = scene.handler.getAnimationIds();
+
+        animationEvents = new AnimationChanged[STORM_SIZE];
+        graphicEvents = new GraphicChanged[STORM_SIZE];
+        projectileEvents = new ProjectileMoved[STORM_SIZE];
+        objectSpawnedEvents = new GameObjectSpawned[STORM_SIZE];
+        objectDespawnedEvents = new GameObjectDespawned[STORM_SIZE];
+
+        for (int i = 0; i < STORM_SIZE; i++) {
+            ReplayClient.ReplayNpc npc = scene.replayClient.getNpc(random.nextInt(SCENE_NPCS));
+            if (animations.length > 0 && random.nextInt(4) == 0) {
+                npc.animation = animations[random.nextInt(animations.length)];
+            }
+            NPC actor = npc.proxy;
+
+            AnimationChanged animationChanged = new AnimationChanged();
+            animationChanged.setActor(actor);
+            animationEvents[i] = animationChanged;
+
+            GraphicChanged graphicChanged = new GraphicChanged();
+            graphicChanged.setActor(actor);
+            graphicEvents[i] = graphicChanged;
+
+            Projectile projectile = mock(Projectile.class);
+            when(projectile.getId()).thenReturn(random.nextInt(3000));
+            ProjectileMoved projectileMoved = new ProjectileMoved();
+            projectileMoved.setProjectile(projectile);
+            projectileEvents[i] = projectileMoved;
+
+            // One in sixteen objects is a spore; each is despawned again in the same storm
+            int objectId = random.nextInt(16) == 0 ? SPORE_OBJECT_ID : OTHER_OBJECT_ID;
+            GameObject object = ReplayClient.gameObject(objectId,
+                    new WorldPoint(3870 + random.nextInt(20), 9950 + random.nextInt(20), 3));
+            GameObjectSpawned spawned = new GameObjectSpawned();
+            spawned.setGameObject(object);
+            objectSpawnedEvents[i] = spawned;
+            GameObjectDespawned despawned = new GameObjectDespawned();
+            despawned.setGameObject(object);
+            objectDespawnedEvents[i] = despawned;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        scene.shutDown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STORM_SIZE)
+    public void animationStorm() {
+        for (AnimationChanged event : animationEvents) {
+            scene.plugin.onAnimationChanged(event);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STORM_SIZE)
+    public void graphicStorm() {
+        for (GraphicChanged event : graphicEvents) {
+            scene.plugin.onGraphicChanged(event);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STORM_SIZE)
+    public void projectileStorm() {
+        for (ProjectileMoved event : projectileEvents) {
+            scene.plugin.onProjectileMoved(event);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STORM_SIZE * 2)
+    public void objectStorm() {
+        for (GameObjectSpawned event : objectSpawnedEvents) {
+            scene.plugin.onGameObjectSpawned(event);
+        }
+        for (GameObjectDespawned event : objectDespawnedEvents) {
+            scene.plugin.onGameObjectDespawned(event);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.pvmkits;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tick cost of the boss handlers over synthetic scenes. One in ten NPCs
+ * is a boss NPC, so the larger scenes also stress the attack timer tables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerTickBenchmark {
+
+    @Param({ "yama", "phosani" })
+    public String boss;
+
+    @Param({ "10", "100", "500", "2000" })
+    public int npcCount;
+
+    private BenchmarkScene scene;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        scene = new BenchmarkScene(boss, npcCount, 10);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        scene.shutDown();
+    }
+
+    /**
+     * Full plugin tick: scene snapshot rebuild plus handler
+     */
+    @Benchmark
+    public void pluginTick() {
+        scene.tick();
+    }
+
+    /**
+     * Handler only, against the current scene snapshot
+     */
+    @Benchmark
+    public void handlerTick() {
+        scene.tickHandlerOnly();
+    }
+}
@@ -0,0 +1,87 @@
+package com.pvmkits;
+
+import com.pvmkits.bosses.phosani.PhosaniOverlay;
+import com.pvmkits.bosses.yama.YamaOverlay;
+import com.pvmkits.core.TileProjectionMemo;
+import net.runelite.client.ui.overlay.Overlay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one overlay frame rendered into an offscreen image. With a moving
+ * camera every frame reprojects; with a still camera the per-camera caches
+ * apply.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OverlayRenderBenchmark {
+
+    private static final int CANVAS_WIDTH = 765;
+    private static final int CANVAS_HEIGHT = 503;
+
+    @Param({ "yama", "phosani" })
+    public String boss;
+
+    // Scene size; one in five NPCs is a boss NPC and one in five a boss add
+    @Param({ "5", "50" })
+    public int npcCount;
+
+    @Param({ "false", "true" })
+    public boolean movingCamera;
+
+    private BenchmarkScene scene;
+    private Overlay overlay;
+    private TileProjectionMemo tileProjections;
+    private BufferedImage image;
+    private Graphics2D graphics;
+    private int cameraYaw;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        scene = new BenchmarkScene(boss, npcCount, 5);
+        overlay = "phosani".equals(boss) ? scene.injector.getInstance(PhosaniOverlay.class)
+                : scene.injector.getInstance(YamaOverlay.class);
+        tileProjections = scene.injector.getInstance(TileProjectionMemo.class);
+
+        image = new BufferedImage(CANVAS_WIDTH, CANVAS_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        graphics.dispose();
+        scene.shutDown();
+    }
+
+    @Benchmark
+    public Object render() {
+        if (movingCamera) {
+            cameraYaw = (cameraYaw + 1) & 2047;
+            scene.replayClient.setCameraYaw(cameraYaw);
+        }
+        // What the plugin does on BeforeRender
+        tileProjections.beginFrame();
+        return overlay.render(graphics);
+    }
+}
@@ -0,0 +1,59 @@
+package com.pvmkits;
+
+import net.runelite.api.events.AnimationChanged;
+import net.runelite.api.events.BeforeRender;
+import net.runelite.api.events.GameObjectDespawned;
+import net.runelite.api.events.GameObjectSpawned;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.GraphicChanged;
+import net.runelite.api.events.ProjectileMoved;
+import net.runelite.client.eventbus.Subscribe;
+
+/**
+ * The plugin's high-frequency event subscriptions. Registered on the event bus
+ * only while a boss is active, so outside boss areas these events are never
+ * delivered to PVM Kits at all.
+ */
+class ActiveBossSubscriber {
+
+    private final PvmKitsPlugin plugin;
+
+    ActiveBossSubscriber(PvmKitsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Subscribe
+    public void onBeforeRender(BeforeRender event) {
+        plugin.onBeforeRender(event);
+    }
+
+    @Subscribe
+    public void onGameTick(GameTick event) {
+        plugin.onGameTick(event);
+    }
+
+    @Subscribe
+    public void onAnimationChanged(AnimationChanged event) {
+        plugin.onAnimationChanged(event);
+    }
+
+    @Subscribe
+    public void onGraphicChanged(GraphicChanged event) {
+        plugin.onGraphicChanged(event);
+    }
+
+    @Subscribe
+    public void onProjectileMoved(ProjectileMoved event) {
+        plugin.onProjectileMoved(event);
+    }
+
+    @Subscribe
+    public void onGameObjectSpawned(GameObjectSpawned event) {
+        plugin.onGameObjectSpawned(event);
+    }
+
+    @Subscribe
+    public void onGameObjectDespawned(GameObjectDespawned event) {
+        plugin.onGameObjectDespawned(event);
+    }
+}
@@ -0,0 +1,66 @@
+package com.pvmkits;
+
+import com.pvmkits.core.LatencyHistogram;
+import com.pvmkits.core.PerformanceMonitor;
+import net.runelite.client.ui.overlay.OverlayPanel;
+import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.components.LineComponent;
+import net.runelite.client.ui.overlay.components.TitleComponent;
+
+import javax.inject.Inject;
+import java.awt.*;
+
+/**
+ * Debug panel listing p50 / p99 / max latency of every timed entry point and
+ * overlay, in microseconds. Shown while "Show Debug Info" is on.
+ */
+public class PerformanceOverlay extends OverlayPanel {
+
+    private static final int PANEL_WIDTH = 240;
+    private static final Color OVER_BUDGET_COLOR = Color.RED;
+
+    // A p99 above this takes a noticeable share of a 50 fps frame
+    private static final long BUDGET_NANOS = 1_000_000;
+
+    private final PvmKitsPlugin plugin;
+    private final PerformanceMonitor performanceMonitor;
+
+    @Inject
+    public PerformanceOverlay(PvmKitsPlugin plugin, PerformanceMonitor performanceMonitor) {
+        this.plugin = plugin;
+        this.performanceMonitor = performanceMonitor;
+        setPosition(OverlayPosition.TOP_LEFT);
+        panelComponent.setPreferredSize(new Dimension(PANEL_WIDTH, 0));
+    }
+
+    @Override
+    public Dimension render(Graphics2D graphics) {
+        if (!plugin.getSettings().isShowDebugInfo() || !performanceMonitor.isEnabled()) {
+            return null;
+        }
+
+        panelComponent.getChildren().add(TitleComponent.builder()
+                .text("PVM Kits p50 / p99 / max (us)")
+                .build());
+
+        for (LatencyHistogram histogram : performanceMonitor.getHistograms()) {
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+
+            long p99 = histogram.getPercentile(99);
+            panelComponent.getChildren().add(LineComponent.builder()
+                    .left(histogram.getName())
+                    .right(micros(histogram.getPercentile(50)) + " / " + micros(p99) + " / "
+                            + micros(histogram.getMax()))
+                    .rightColor(p99 > BUDGET_NANOS ? OVER_BUDGET_COLOR : Color.WHITE)
+                    .build());
+        }
+
+        return super.render(graphics);
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1f", nanos / 1000.0);
+    }
+}
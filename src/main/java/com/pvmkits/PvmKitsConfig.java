@@ -16,11 +16,21 @@ public interface PvmKitsConfig extends Config {
     String phosani = "phosani";
 
     // General Settings
-    @ConfigItem(keyName = "showDebugInfo", name = "Show Debug Info", description = "Display debug information in chat", section = general, position = 0)
+    @ConfigItem(keyName = "showDebugInfo", name = "Show Debug Info", description = "Display debug information in chat, including ::pvmtrace dumps of recent tick events, and a panel with per-handler and per-overlay latencies", section = general, position = 0)
     default boolean showDebugInfo() {
         return false;
     }
 
+    @ConfigItem(keyName = "overlayFrameBudget", name = "Overlay Frame Budget", description = "Render time per frame (microseconds) each boss overlay may use before it drops hull outlines, then fills, then redraws only once per tick. Timers and phase colors always render. 0 disables", section = general, position = 1)
+    default int overlayFrameBudget() {
+        return 2000;
+    }
+
+    @ConfigItem(keyName = "retainedOverlays", name = "Retained Overlays", description = "Draw boss overlays into a cached layer that is only redrawn when the tick, the camera or an NPC position changes, and reuse it on other frames. Saves render time on high refresh rate monitors. Sleepwalker and husk hull outlines follow every animation frame, so they are drawn over the layer each frame rather than cached", section = general, position = 2)
+    default boolean retainedOverlays() {
+        return false;
+    }
+
     // Yama Settings
     @ConfigItem(keyName = "highlightYama", name = "Highlight Yama", description = "Highlight Yama NPCs based on their combat phase", section = yama, position = 0)
     default boolean highlightYama() {
@@ -138,7 +148,7 @@ public interface PvmKitsConfig extends Config {
         return 50;
     }
 
-    @ConfigItem(keyName = "highlightSporeDangerZones", name = "Highlight Spore Danger Zones", description = "Show red borders around dangerous 3x3 spore areas", section = phosani, position = 11)
+    @ConfigItem(keyName = "highlightSporeDangerZones", name = "Highlight Spore Danger Zones", description = "Show red borders around dangerous 3x3 spore areas and fill your tile while you stand in one", section = phosani, position = 11)
     default boolean highlightSporeDangerZones() {
         return true;
     }
@@ -148,6 +158,11 @@ public interface PvmKitsConfig extends Config {
         return true;
     }
 
+    @ConfigItem(keyName = "showSporeTimers", name = "Show Spore Timers", description = "Show the ticks left before each spore disappears on its danger zone", section = phosani, position = 13)
+    default boolean showSporeTimers() {
+        return true;
+    }
+
     // TODO: Add other boss config sections here when new bosses are implemented
     // Example:
     // @ConfigSection(name = "Verzik Settings", description = "Verzik boss
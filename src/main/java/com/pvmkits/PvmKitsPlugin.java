@@ -7,23 +7,47 @@ import com.pvmkits.bosses.phosani.PhosaniHandler;
 import com.pvmkits.bosses.phosani.PhosaniOverlay;
 
 import com.pvmkits.core.BossHandler;
+import com.pvmkits.core.BossNpcRegistry;
+import com.pvmkits.core.EventInterest;
+import com.pvmkits.core.EventRecorder;
+import com.pvmkits.core.LatencyHistogram;
+import com.pvmkits.core.PerformanceMonitor;
+import com.pvmkits.core.SceneSnapshot;
+import com.pvmkits.core.TickTrace;
+import com.pvmkits.core.TileProjectionMemo;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Actor;
+import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.NPC;
 import net.runelite.api.events.AnimationChanged;
+import net.runelite.api.events.BeforeRender;
+import net.runelite.api.events.CommandExecuted;
+import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.GameTick;
 import net.runelite.api.events.GraphicChanged;
 import net.runelite.api.events.ProjectileMoved;
 import net.runelite.api.events.GameObjectSpawned;
 import net.runelite.api.events.GameObjectDespawned;
+import net.runelite.api.events.NpcChanged;
+import net.runelite.api.events.NpcDespawned;
+import net.runelite.api.events.NpcSpawned;
+import net.runelite.client.RuneLite;
+import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
+import net.runelite.client.eventbus.EventBus;
 import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
+import net.runelite.client.ui.overlay.Overlay;
 import net.runelite.client.ui.overlay.OverlayManager;
 
 import javax.inject.Inject;
-import java.util.ArrayList;
-import java.util.List;
+import javax.inject.Provider;
+import java.io.File;
+import java.io.IOException;
 
 @Slf4j
 @PluginDescriptor(name = "PVM Kits", description = "Multi-boss PVM assistance toolkit with mechanics overlays and timers", tags = {
@@ -34,44 +58,126 @@ public class PvmKitsPlugin extends Plugin {
     @Inject
     private Client client;
 
+    @Inject
+    private ClientThread clientThread;
+
     @Inject
     private OverlayManager overlayManager;
 
+    @Inject
+    private EventBus eventBus;
+
     @Inject
     private PvmKitsConfig config;
 
+    // Config read once per change; render and tick paths read this instead of config
+    private volatile PvmKitsSettings settings;
+
+    // Handlers load their boss definition when created, so they are only
+    // created the first time their boss is enabled
     @Inject
+    private Provider<YamaHandler> yamaHandlerProvider;
+
+    @Inject
+    private Provider<PhosaniHandler> phosaniHandlerProvider;
+
     private YamaHandler yamaHandler;
+    private PhosaniHandler phosaniHandler;
+
+    // Bosses whose handlers are currently registered
+    private boolean yamaEnabled;
+    private boolean phosaniEnabled;
 
     @Inject
     private YamaOverlay yamaOverlay;
 
     @Inject
-    private PhosaniHandler phosaniHandler;
+    private PhosaniOverlay phosaniOverlay;
 
+    // All boss handlers - Yama, Verzik... - indexed by the NPC IDs they own
     @Inject
-    private PhosaniOverlay phosaniOverlay;
+    private BossNpcRegistry bossNpcRegistry;
+
+    // NPCs relevant to the active boss, rebuilt once per tick
+    @Inject
+    private SceneSnapshot sceneSnapshot;
+
+    // Hot-path diagnostics, formatted only on request
+    @Inject
+    private TickTrace tickTrace;
 
-    // List of all boss handlers - Yama, Verzik...
-    private List<BossHandler> bossHandlers;
+    @Inject
+    private EventRecorder eventRecorder;
+
+    @Inject
+    private PerformanceMonitor performanceMonitor;
+
+    @Inject
+    private PerformanceOverlay performanceOverlay;
+
+    // Tiles projected this frame, shared by the boss overlays
+    @Inject
+    private TileProjectionMemo tileProjectionMemo;
 
     // Current active boss handler
     private BossHandler activeBossHandler;
 
+    // Tick, animation, graphic, projectile and object events, subscribed only
+    // while a boss is active
+    private final ActiveBossSubscriber activeBossSubscriber = new ActiveBossSubscriber(this);
+
+    // IDs the active handler cares about, NONE while no boss is active
+    private EventInterest activeEventInterest = EventInterest.NONE;
+
+    // Entry point latencies of the active handler, indexed by EntryPoint ordinal
+    private LatencyHistogram[] activeLatencies;
+
+    // Instrumented event entry points, timed per handler
+    private enum EntryPoint {
+        GAME_TICK("tick"),
+        ANIMATION("animation"),
+        GRAPHIC("graphic"),
+        PROJECTILE("projectile"),
+        OBJECT_SPAWNED("object spawn"),
+        OBJECT_DESPAWNED("object despawn");
+
+        private final String label;
+
+        EntryPoint(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final EntryPoint[] ENTRY_POINTS = EntryPoint.values();
+
+    private static final String CONFIG_GROUP = "pvmkits";
+
+    // ::pvmtrace [records] dumps the most recent trace records
+    private static final String TRACE_COMMAND = "pvmtrace";
+    private static final int DEFAULT_TRACE_DUMP_RECORDS = 50;
+
+    // ::pvmrecord starts or stops recording boss events for offline replay
+    private static final String RECORD_COMMAND = "pvmrecord";
+    private static final String RECORDINGS_DIRECTORY = "pvmkits-recordings";
+
     @Override
     protected void startUp() throws Exception {
-        // Initialize boss handlers list
-        bossHandlers = new ArrayList<>();
-        bossHandlers.add(yamaHandler);
-        bossHandlers.add(phosaniHandler);
+        settings = PvmKitsSettings.from(config);
 
-        // TODO: Add other boss handlers here when implemented
-        // bossHandlers.add(nyloHandler);
-        // etc.
+        // Register handlers of enabled bosses and the NPC IDs they own
+        yamaEnabled = false;
+        phosaniEnabled = false;
+        registerEnabledBosses();
 
         activeBossHandler = null;
-        overlayManager.add(yamaOverlay);
-        overlayManager.add(phosaniOverlay);
+        activeEventInterest = EventInterest.NONE;
+        activeLatencies = null;
+        performanceMonitor.setEnabled(settings.isShowDebugInfo());
+        // Boss overlays are added when their boss becomes active
+        overlayManager.add(performanceOverlay);
+
+        // Seed the registry with any boss already loaded (plugin enabled mid-fight)
+        clientThread.invokeLater(this::rebuildLiveNpcs);
 
         log.info("PVM Kits plugin started!");
     }
@@ -79,107 +185,389 @@ public class PvmKitsPlugin extends Plugin {
     @Override
     protected void shutDown() throws Exception {
         // Reset all boss handlers
-        for (BossHandler handler : bossHandlers) {
+        for (BossHandler handler : bossNpcRegistry.getHandlers()) {
             handler.reset();
         }
 
+        eventRecorder.stop();
+        deactivate(activeBossHandler);
+        bossNpcRegistry.unregisterAll();
+        yamaEnabled = false;
+        phosaniEnabled = false;
+        sceneSnapshot.bind(null);
         activeBossHandler = null;
-        overlayManager.remove(yamaOverlay);
-        overlayManager.remove(phosaniOverlay);
+        activeEventInterest = EventInterest.NONE;
+        activeLatencies = null;
+        performanceMonitor.setEnabled(false);
+        overlayManager.remove(performanceOverlay);
 
         log.info("PVM Kits plugin stopped!");
     }
 
-    @Subscribe
+    // Delivered through activeBossSubscriber, only while a boss is active
+    public void onBeforeRender(BeforeRender event) {
+        tileProjectionMemo.beginFrame();
+    }
+
     public void onGameTick(GameTick event) {
-        log.debug("PvmKitsPlugin.onGameTick: Called with " + bossHandlers.size() + " handlers");
-
-        // Determine which boss area we're in (if any)
-        BossHandler newActiveBoss = null;
-        for (BossHandler handler : bossHandlers) {
-            log.debug("PvmKitsPlugin.onGameTick: Checking " + handler.getBossName() + " boss area");
-            if (handler.isInBossArea(client)) {
-                newActiveBoss = handler;
-                log.debug("PvmKitsPlugin.onGameTick: Found active boss: " + handler.getBossName());
-                break; // Use first matching boss handler
-            }
-        }
+        tickTrace.setTick(client.getTickCount());
 
-        log.debug("PvmKitsPlugin.onGameTick: Active boss = " +
-                (newActiveBoss != null ? newActiveBoss.getBossName() : "null"));
+        // Forward event to active boss handler
+        if (activeBossHandler != null) {
+            long start = performanceMonitor.start();
+            sceneSnapshot.update(client);
+            eventRecorder.recordTick(client.getTickCount(), sceneSnapshot);
+            activeBossHandler.onGameTick(event);
+            performanceMonitor.stop(activeLatency(EntryPoint.GAME_TICK), start);
+        }
+    }
 
-        // If we switched boss areas, reset the previous handler
-        if (activeBossHandler != newActiveBoss) {
-            if (activeBossHandler != null) {
-                activeBossHandler.reset();
-                log.info("Left {} area", activeBossHandler.getBossName());
-            }
+    @Subscribe
+    public void onNpcSpawned(NpcSpawned event) {
+        NPC npc = event.getNpc();
+        eventRecorder.recordNpcSpawned(npc);
+        if (bossNpcRegistry.npcSpawned(npc.getId())) {
+            updateActiveBossHandler();
+        }
+        sceneSnapshot.npcSpawned(npc);
+        if (activeBossHandler != null) {
+            activeBossHandler.onNpcSpawned(npc);
+        }
+    }
 
-            activeBossHandler = newActiveBoss;
+    @Subscribe
+    public void onNpcDespawned(NpcDespawned event) {
+        NPC npc = event.getNpc();
+        eventRecorder.recordNpcDespawned(npc);
+        if (activeBossHandler != null) {
+            activeBossHandler.onNpcDespawned(npc);
+        }
+        if (bossNpcRegistry.npcDespawned(npc.getId())) {
+            updateActiveBossHandler();
+        }
+        sceneSnapshot.npcDespawned(npc);
+    }
 
-            if (activeBossHandler != null) {
-                log.info("Entered {} area", activeBossHandler.getBossName());
-            }
+    @Subscribe
+    public void onNpcChanged(NpcChanged event) {
+        // Bosses such as Phosani transform between IDs mid-fight
+        NPC npc = event.getNpc();
+        eventRecorder.recordNpcDespawned(npc);
+        eventRecorder.recordNpcSpawned(npc);
+        boolean changed = bossNpcRegistry.npcDespawned(event.getOld().getId());
+        changed |= bossNpcRegistry.npcSpawned(npc.getId());
+        if (changed) {
+            updateActiveBossHandler();
         }
 
-        // Forward event to active boss handler
+        // Re-bucket under the new ID
+        sceneSnapshot.npcDespawned(npc);
+        sceneSnapshot.npcSpawned(npc);
         if (activeBossHandler != null) {
-            log.debug("PvmKitsPlugin.onGameTick: Forwarding to " + activeBossHandler.getBossName());
-            activeBossHandler.onGameTick(event);
-        } else {
-            log.debug("PvmKitsPlugin.onGameTick: No active boss handler");
+            activeBossHandler.onNpcDespawned(npc);
+            activeBossHandler.onNpcSpawned(npc);
         }
     }
 
     @Subscribe
+    public void onGameStateChanged(GameStateChanged event) {
+        // The scene is dropped without despawn events when logging out or hopping
+        GameState gameState = event.getGameState();
+        if (gameState == GameState.LOGIN_SCREEN || gameState == GameState.HOPPING) {
+            bossNpcRegistry.clearLiveNpcs();
+            updateActiveBossHandler();
+        }
+    }
+
+    // Animation, graphic, projectile and object events are also only delivered
+    // through activeBossSubscriber
     public void onAnimationChanged(AnimationChanged event) {
-        // Forward to active boss handler
-        if (activeBossHandler != null) {
-            activeBossHandler.onAnimationChanged(event);
+        long start = performanceMonitor.start();
+
+        // Forward to active boss handler, only for its NPCs and animations
+        Actor actor = event.getActor();
+        if (isActiveBossNpc(actor)) {
+            eventRecorder.recordAnimation((NPC) actor);
+            if (activeEventInterest.isInterestedInAnimation(actor.getAnimation())) {
+                activeBossHandler.onAnimationChanged(event);
+            }
         }
+
+        performanceMonitor.stop(activeLatency(EntryPoint.ANIMATION), start);
     }
 
-    @Subscribe
+    @SuppressWarnings("deprecation") // getGraphic() is deprecated but still functional
     public void onGraphicChanged(GraphicChanged event) {
-        // Forward to active boss handler
-        if (activeBossHandler != null) {
-            activeBossHandler.onGraphicChanged(event);
+        long start = performanceMonitor.start();
+
+        // Forward to active boss handler, only for its NPCs and graphics
+        Actor actor = event.getActor();
+        if (isActiveBossNpc(actor)) {
+            eventRecorder.recordGraphic((NPC) actor);
+            if (activeEventInterest.isInterestedInGraphic(actor.getGraphic())) {
+                activeBossHandler.onGraphicChanged(event);
+            }
         }
+
+        performanceMonitor.stop(activeLatency(EntryPoint.GRAPHIC), start);
     }
 
-    @Subscribe
     public void onProjectileMoved(ProjectileMoved event) {
+        long start = performanceMonitor.start();
+
         // Forward to active boss handler
-        if (activeBossHandler != null) {
+        if (activeEventInterest.isInterestedInProjectile(event.getProjectile().getId())) {
             activeBossHandler.onProjectileMoved(event);
         }
+
+        performanceMonitor.stop(activeLatency(EntryPoint.PROJECTILE), start);
     }
 
-    @Subscribe
     public void onGameObjectSpawned(GameObjectSpawned event) {
-        // Forward to Phosani handler specifically for spore tracking
-        if (phosaniHandler != null) {
-            phosaniHandler.onGameObjectSpawned(event);
+        long start = performanceMonitor.start();
+
+        // Forward to active boss handler, e.g. Phosani spores
+        if (activeEventInterest.isInterestedInGameObject(event.getGameObject().getId())) {
+            eventRecorder.recordObjectSpawned(event.getGameObject());
+            activeBossHandler.onGameObjectSpawned(event);
         }
+
+        performanceMonitor.stop(activeLatency(EntryPoint.OBJECT_SPAWNED), start);
     }
 
-    @Subscribe
     public void onGameObjectDespawned(GameObjectDespawned event) {
-        // Forward to Phosani handler specifically for spore tracking
-        if (phosaniHandler != null) {
-            phosaniHandler.onGameObjectDespawned(event);
+        long start = performanceMonitor.start();
+
+        // Forward to active boss handler, e.g. Phosani spores
+        if (activeEventInterest.isInterestedInGameObject(event.getGameObject().getId())) {
+            eventRecorder.recordObjectDespawned(event.getGameObject());
+            activeBossHandler.onGameObjectDespawned(event);
+        }
+
+        performanceMonitor.stop(activeLatency(EntryPoint.OBJECT_DESPAWNED), start);
+    }
+
+    @Subscribe
+    public void onConfigChanged(ConfigChanged event) {
+        if (!CONFIG_GROUP.equals(event.getGroup())) {
+            return;
         }
+
+        // Overlays rebuild their fonts and colors when they see a new snapshot
+        settings = PvmKitsSettings.from(config);
+
+        performanceMonitor.setEnabled(settings.isShowDebugInfo());
+
+        // A boss was enabled or disabled: re-register handlers and recount live boss NPCs
+        clientThread.invokeLater(() -> {
+            if (registerEnabledBosses()) {
+                rebuildLiveNpcs();
+            }
+        });
+    }
+
+    @Subscribe
+    public void onCommandExecuted(CommandExecuted event) {
+        if (TRACE_COMMAND.equalsIgnoreCase(event.getCommand())) {
+            dumpTrace(event.getArguments());
+        } else if (RECORD_COMMAND.equalsIgnoreCase(event.getCommand())) {
+            toggleRecording();
+        }
+    }
+
+    private void dumpTrace(String[] arguments) {
+        int maxRecords = DEFAULT_TRACE_DUMP_RECORDS;
+        if (arguments.length > 0) {
+            try {
+                maxRecords = Integer.parseInt(arguments[0]);
+            } catch (NumberFormatException e) {
+                log.debug("Invalid trace record count: {}", arguments[0]);
+            }
+        }
+
+        // Always dump to the log, and to chat as well when debug info is enabled
+        boolean toChat = settings.isShowDebugInfo();
+        for (String line : tickTrace.format(maxRecords)) {
+            log.info("[trace] {}", line);
+            if (toChat) {
+                client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", line, null);
+            }
+        }
+    }
+
+    private void toggleRecording() {
+        String message;
+        if (eventRecorder.isRecording()) {
+            eventRecorder.stop();
+            message = "Stopped recording to " + eventRecorder.getFile();
+        } else {
+            File file = new File(new File(RuneLite.RUNELITE_DIR, RECORDINGS_DIRECTORY),
+                    "fight-" + System.currentTimeMillis() + ".pvmr");
+            try {
+                eventRecorder.start(file);
+                // Replays start from the NPCs already in the scene
+                for (NPC npc : client.getTopLevelWorldView().npcs()) {
+                    if (npc != null) {
+                        eventRecorder.recordNpcSpawned(npc);
+                    }
+                }
+                message = "Recording boss events to " + file;
+            } catch (IOException e) {
+                log.warn("Unable to start recording to {}", file, e);
+                message = "Unable to start recording: " + e.getMessage();
+            }
+        }
+
+        log.info(message);
+        client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", message, null);
+    }
+
+    // Latency histogram of the active handler for an entry point, null while no boss is active
+    private LatencyHistogram activeLatency(EntryPoint entryPoint) {
+        return activeLatencies != null ? activeLatencies[entryPoint.ordinal()] : null;
+    }
+
+    // Bit test on the NPC ID before anything else; activeEventInterest is NONE when no boss is active
+    private boolean isActiveBossNpc(Actor actor) {
+        return actor instanceof NPC && activeEventInterest.isInterestedInNpc(((NPC) actor).getId());
+    }
+
+    /**
+     * Register the handlers of bosses with at least one feature enabled,
+     * creating them on first use. Returns true if the registered set changed.
+     */
+    private boolean registerEnabledBosses() {
+        boolean yama = settings.isYamaEnabled();
+        boolean phosani = settings.isPhosaniEnabled();
+        if (yama == yamaEnabled && phosani == phosaniEnabled) {
+            return false;
+        }
+
+        bossNpcRegistry.unregisterAll();
+        if (yama) {
+            if (yamaHandler == null) {
+                yamaHandler = yamaHandlerProvider.get();
+            }
+            bossNpcRegistry.register(yamaHandler);
+        }
+        if (phosani) {
+            if (phosaniHandler == null) {
+                phosaniHandler = phosaniHandlerProvider.get();
+            }
+            bossNpcRegistry.register(phosaniHandler);
+        }
+
+        // TODO: Add other boss handlers here when implemented
+
+        yamaEnabled = yama;
+        phosaniEnabled = phosani;
+        return true;
+    }
+
+    private void rebuildLiveNpcs() {
+        bossNpcRegistry.clearLiveNpcs();
+        if (client.getGameState() == GameState.LOGGED_IN) {
+            for (NPC npc : client.getTopLevelWorldView().npcs()) {
+                if (npc != null) {
+                    bossNpcRegistry.npcSpawned(npc.getId());
+                }
+            }
+        }
+        updateActiveBossHandler();
+    }
+
+    private void updateActiveBossHandler() {
+        BossHandler newActiveBoss = bossNpcRegistry.getActiveHandler();
+
+        // If we switched boss areas, reset the previous handler
+        if (activeBossHandler != newActiveBoss) {
+            if (activeBossHandler != null) {
+                activeBossHandler.reset();
+                deactivate(activeBossHandler);
+                log.info("Left {} area", activeBossHandler.getBossName());
+            }
+
+            activeBossHandler = newActiveBoss;
+            activeEventInterest = bossNpcRegistry.getEventInterest(activeBossHandler);
+            activeLatencies = activeBossHandler != null ? handlerLatencies(activeBossHandler) : null;
+            sceneSnapshot.bind(activeBossHandler);
+
+            if (activeBossHandler != null) {
+                sceneSnapshot.update(client);
+                activate(activeBossHandler);
+
+                // Let the handler pick up adds that spawned before it was active
+                for (NPC npc : client.getTopLevelWorldView().npcs()) {
+                    if (npc != null) {
+                        activeBossHandler.onNpcSpawned(npc);
+                    }
+                }
+                log.info("Entered {} area", activeBossHandler.getBossName());
+            }
+        }
+    }
+
+    // Subscribe to high-frequency events and show the boss's overlay
+    private void activate(BossHandler handler) {
+        // Tiles remembered from the last active frame may have moved since
+        tileProjectionMemo.beginFrame();
+        eventBus.register(activeBossSubscriber);
+        Overlay overlay = getOverlay(handler);
+        if (overlay != null) {
+            overlayManager.add(overlay);
+        }
+    }
+
+    private void deactivate(BossHandler handler) {
+        if (handler == null) {
+            return;
+        }
+
+        eventBus.unregister(activeBossSubscriber);
+        Overlay overlay = getOverlay(handler);
+        if (overlay != null) {
+            overlayManager.remove(overlay);
+        }
+    }
+
+    private Overlay getOverlay(BossHandler handler) {
+        if (handler == yamaHandler) {
+            return yamaOverlay;
+        }
+        if (handler == phosaniHandler) {
+            return phosaniOverlay;
+        }
+        return null;
+    }
+
+    private LatencyHistogram[] handlerLatencies(BossHandler handler) {
+        LatencyHistogram[] latencies = new LatencyHistogram[ENTRY_POINTS.length];
+        for (EntryPoint entryPoint : ENTRY_POINTS) {
+            latencies[entryPoint.ordinal()] = performanceMonitor
+                    .histogram(handler.getBossName() + " " + entryPoint.label);
+        }
+        return latencies;
     }
 
     // Getters for access by overlays and other components
+    public PvmKitsSettings getSettings() {
+        return settings;
+    }
+
     public BossHandler getActiveBossHandler() {
         return activeBossHandler;
     }
 
+    /**
+     * Get the Yama handler, or null if Yama has never been enabled
+     */
     public YamaHandler getYamaHandler() {
         return yamaHandler;
     }
 
+    /**
+     * Get the Phosani handler, or null if Phosani has never been enabled
+     */
     public PhosaniHandler getPhosaniHandler() {
         return phosaniHandler;
     }
@@ -0,0 +1,192 @@
+package com.pvmkits;
+
+import com.pvmkits.bosses.phosani.PhosaniHandler;
+import com.pvmkits.bosses.yama.YamaHandler;
+
+import java.awt.Color;
+import java.awt.Font;
+
+/**
+ * Immutable snapshot of {@link PvmKitsConfig}, built at startup and rebuilt on
+ * every config change. Config getters go through a proxy and the config
+ * manager on each call, so render and tick paths read this snapshot instead,
+ * along with the values derived from config (fonts, phase fill colors).
+ *
+ * A new snapshot is a new object, so holders can detect changes by reference.
+ */
+public final class PvmKitsSettings {
+
+    private static final YamaHandler.YamaPhase[] YAMA_PHASES = YamaHandler.YamaPhase.values();
+    private static final PhosaniHandler.PhosaniPhase[] PHOSANI_PHASES = PhosaniHandler.PhosaniPhase.values();
+
+    private final boolean showDebugInfo;
+    private final int overlayFrameBudget;
+    private final boolean retainedOverlays;
+
+    private final boolean highlightYama;
+    private final boolean showYamaAttackTimers;
+    private final Font yamaTimerFont;
+    private final Color yamaNormalTimerColor;
+    private final Color yamaWarningColor;
+    private final Color[] yamaPhaseFillColors; // By phase ordinal, with the boulder transparency
+
+    private final boolean highlightPhosani;
+    private final boolean showPhosaniAttackTimers;
+    private final boolean highlightSporeDangerZones;
+    private final boolean highlightSleepwalkers;
+    private final boolean showSporeTimers;
+    private final Font phosaniTimerFont;
+    private final Font sporeTimerFont;
+    private final Color phosaniNormalTimerColor;
+    private final Color phosaniWarningColor;
+    private final Color[] phosaniPhaseFillColors; // By phase ordinal, with the Phosani transparency
+
+    private PvmKitsSettings(PvmKitsConfig config) {
+        showDebugInfo = config.showDebugInfo();
+        overlayFrameBudget = config.overlayFrameBudget();
+        retainedOverlays = config.retainedOverlays();
+
+        highlightYama = config.highlightYama();
+        showYamaAttackTimers = config.showAttackTimers();
+        yamaTimerFont = new Font("Arial", Font.BOLD, config.timerTextSize());
+        yamaNormalTimerColor = config.normalTimerColor();
+        yamaWarningColor = config.warningColor();
+        int boulderTransparency = config.boulderTransparency();
+        yamaPhaseFillColors = new Color[YAMA_PHASES.length];
+        for (YamaHandler.YamaPhase phase : YAMA_PHASES) {
+            yamaPhaseFillColors[phase.ordinal()] = withAlpha(phase.getColor(), boulderTransparency);
+        }
+
+        highlightPhosani = config.highlightPhosani();
+        showPhosaniAttackTimers = config.showPhosaniAttackTimers();
+        highlightSporeDangerZones = config.highlightSporeDangerZones();
+        highlightSleepwalkers = config.highlightSleepwalkers();
+        showSporeTimers = config.showSporeTimers();
+        int fontSize = Math.max(20, config.phosaniTimerTextSize() + 8); // Minimum 24px, +8 from config
+        phosaniTimerFont = new Font("Arial", Font.BOLD, fontSize);
+        // A third of the attack timer so it fits inside a spore zone, at least 14px
+        sporeTimerFont = phosaniTimerFont.deriveFont(Math.max(14f, fontSize / 3f));
+        phosaniNormalTimerColor = config.phosaniNormalTimerColor();
+        phosaniWarningColor = config.phosaniWarningColor();
+        int phosaniTransparency = config.phosaniTransparency();
+        phosaniPhaseFillColors = new Color[PHOSANI_PHASES.length];
+        for (PhosaniHandler.PhosaniPhase phase : PHOSANI_PHASES) {
+            phosaniPhaseFillColors[phase.ordinal()] = withAlpha(phase.getColor(), phosaniTransparency);
+        }
+    }
+
+    /**
+     * Read every setting from config once
+     */
+    public static PvmKitsSettings from(PvmKitsConfig config) {
+        return new PvmKitsSettings(config);
+    }
+
+    public boolean isShowDebugInfo() {
+        return showDebugInfo;
+    }
+
+    /**
+     * Render time per frame in microseconds each boss overlay may use, 0 for
+     * no limit
+     */
+    public int getOverlayFrameBudget() {
+        return overlayFrameBudget;
+    }
+
+    /**
+     * True if boss overlays draw into a cached layer redrawn only when their
+     * content changes
+     */
+    public boolean isRetainedOverlays() {
+        return retainedOverlays;
+    }
+
+    /**
+     * True if any Yama feature is on
+     */
+    public boolean isYamaEnabled() {
+        return highlightYama || showYamaAttackTimers;
+    }
+
+    public boolean isHighlightYama() {
+        return highlightYama;
+    }
+
+    public boolean isShowYamaAttackTimers() {
+        return showYamaAttackTimers;
+    }
+
+    public Font getYamaTimerFont() {
+        return yamaTimerFont;
+    }
+
+    public Color getYamaNormalTimerColor() {
+        return yamaNormalTimerColor;
+    }
+
+    public Color getYamaWarningColor() {
+        return yamaWarningColor;
+    }
+
+    public Color getYamaPhaseFillColor(YamaHandler.YamaPhase phase) {
+        return yamaPhaseFillColors[phase.ordinal()];
+    }
+
+    /**
+     * True if any Phosani feature is on
+     */
+    public boolean isPhosaniEnabled() {
+        return highlightPhosani || showPhosaniAttackTimers || highlightSporeDangerZones || highlightSleepwalkers;
+    }
+
+    public boolean isHighlightPhosani() {
+        return highlightPhosani;
+    }
+
+    public boolean isShowPhosaniAttackTimers() {
+        return showPhosaniAttackTimers;
+    }
+
+    public boolean isHighlightSporeDangerZones() {
+        return highlightSporeDangerZones;
+    }
+
+    public boolean isHighlightSleepwalkers() {
+        return highlightSleepwalkers;
+    }
+
+    /**
+     * True if spore danger zones show the ticks left on each spore
+     */
+    public boolean isShowSporeTimers() {
+        return showSporeTimers;
+    }
+
+    public Font getPhosaniTimerFont() {
+        return phosaniTimerFont;
+    }
+
+    /**
+     * Font of the ticks left on each spore, scaled with the Phosani timer
+     */
+    public Font getSporeTimerFont() {
+        return sporeTimerFont;
+    }
+
+    public Color getPhosaniNormalTimerColor() {
+        return phosaniNormalTimerColor;
+    }
+
+    public Color getPhosaniWarningColor() {
+        return phosaniWarningColor;
+    }
+
+    public Color getPhosaniPhaseFillColor(PhosaniHandler.PhosaniPhase phase) {
+        return phosaniPhaseFillColors[phase.ordinal()];
+    }
+
+    private static Color withAlpha(Color color, int alpha) {
+        return new Color(color.getRed(), color.getGreen(), color.getBlue(), alpha);
+    }
+}
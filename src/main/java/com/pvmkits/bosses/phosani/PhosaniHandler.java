@@ -1,6 +1,14 @@
 package com.pvmkits.bosses.phosani;
 
+import com.pvmkits.core.AttackCycleEngine;
+import com.pvmkits.core.BossDefinition;
+import com.pvmkits.core.BossFrameState;
+import com.pvmkits.core.IdBitSet;
 import com.pvmkits.core.BossHandler;
+import com.pvmkits.core.NpcStateTable;
+import com.pvmkits.core.SceneSnapshot;
+import com.pvmkits.core.TickTrace;
+import com.pvmkits.core.TrackedNpcSet;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.*;
 import net.runelite.api.coords.WorldPoint;
@@ -17,145 +25,151 @@ import java.util.*;
 @Slf4j
 public class PhosaniHandler implements BossHandler {
 
-    @Inject
-    private Client client;
+    private final Client client;
+    private final SceneSnapshot sceneSnapshot;
+    private final TickTrace tickTrace;
 
-    // Track current Phosani phases by NPC index
-    private Map<Integer, PhosaniPhase> phosaniPhases = new HashMap<>();
+    // IDs, size and attack cycle, from phosani.properties
+    private static final String DEFINITION_RESOURCE = "phosani.properties";
 
-    // Phosani's Nightmare NPC IDs
-    private static final Set<Integer> PHOSANI_IDS = Set.of(9416, 9417, 9418, 9419, 9420, 9421, 9422, 9423, 9424, 11153,
-            11154, 11155, 377);
+    // Sleepwalkers and husks, maintained from spawn and despawn events
+    private final IdBitSet sleepwalkerIds;
+    private final IdBitSet huskIds;
+    private final TrackedNpcSet sleepwalkers = new TrackedNpcSet();
+    private final TrackedNpcSet husks = new TrackedNpcSet();
 
-    // Spore danger zone tracking
-    private static final int SPORE_GAME_OBJECT_ID = 37739;
-    private Set<WorldPoint> sporeDangerZones = new HashSet<>();
+    // Spore danger zone tracking. Spores sit one per tile of the roughly 20x20
+    // arena; the bound covers a full arena twice over (stale spores of a reloaded
+    // region waiting for their fallback expiry) with headroom
+    private static final int MAX_SPORES = 1024;
+    private final SporeTracker spores;
+    // Published copy of spores, replaced only when a spore spawns, despawns or expires
+    private volatile SporeZoneSnapshot sporeZoneSnapshot = SporeZoneSnapshot.EMPTY;
 
-    // Phosani animation IDs (these will need to be determined through testing)
-    private static final int ANIMATION_MELEE = 8594; // Placeholder - needs verification
-    private static final int ANIMATION_MAGE = 8595; // Placeholder - needs verification
-    private static final int ANIMATION_RANGE = 8596; // Placeholder - needs verification
-    private static final int ANIMATION_SPECIAL = 8597; // Placeholder - needs verification
-    private static final int ANIMATION_CURSE = 8599; // Curse special attack
+    // Remaining cursed attacks per Phosani, 0 when not cursed
+    private static final int COL_CURSE_ATTACKS = AttackCycleEngine.FIRST_EXTRA_COLUMN;
 
-    // Phosani graphic IDs (these will need to be determined through testing)
-    private static final int GRAPHIC_MAGE = 1767; // Placeholder - needs verification
-    private static final int GRAPHIC_RANGE = 1768; // Placeholder - needs verification
-    private static final int GRAPHIC_SPECIAL = 1769; // Placeholder - needs verification
+    private static final PhosaniPhase[] PHASES = PhosaniPhase.values();
 
-    // Attack cycle constants
-    private static final int ATTACK_CYCLE_TICKS = 6; // Consistent 6-tick cycle throughout fight
+    private final BossDefinition definition;
+    private final int curseAnimationId;
+    private final int curseDurationAttacks;
+    private final int sporeZoneSize;
 
-    // Track last logged animation for each Phosani to prevent duplicate logging
-    private Map<Integer, Integer> lastLoggedAnimations = new HashMap<>();
+    // Phase, attack timer, cooldown and curse state per Phosani
+    private final AttackCycleEngine attackCycle;
+    private final NpcStateTable phosaniStates;
 
-    // Track attack timers for each Phosani (NPC index -> ticks until next attack)
-    private Map<Integer, Integer> phosaniAttackTimers = new HashMap<>();
+    // State published for the overlay once per tick, rebuilt in frameBuilder
+    private final BossFrameState.Builder frameBuilder = new BossFrameState.Builder();
+    private volatile BossFrameState frameState = BossFrameState.EMPTY;
 
-    // Track which timers were just initialized this tick to prevent immediate
-    // countdown
-    private Set<Integer> newlyInitializedTimers = new HashSet<>();
+    @Inject
+    public PhosaniHandler(Client client, SceneSnapshot sceneSnapshot, TickTrace tickTrace) {
+        this.client = client;
+        this.sceneSnapshot = sceneSnapshot;
+        this.tickTrace = tickTrace;
+        this.definition = BossDefinition.load(PhosaniHandler.class, DEFINITION_RESOURCE, PhosaniPhase.class);
+        this.curseAnimationId = definition.getInt("curse.animation");
+        this.curseDurationAttacks = definition.getInt("curse.attacks");
+        this.sporeZoneSize = definition.getInt("spore.zone.size");
+        this.spores = new SporeTracker(MAX_SPORES, definition.getInt("spore.lifetime.ticks"),
+                definition.getInt("spore.expiry.margin.ticks"), sporeZoneSize / 2, tickTrace);
+        this.sleepwalkerIds = IdBitSet.of(definition.getSceneNpcIds(SceneSnapshot.Group.SLEEPWALKER));
+        this.huskIds = IdBitSet.of(definition.getSceneNpcIds(SceneSnapshot.Group.HUSK));
+        this.attackCycle = new AttackCycleEngine(definition.getAttackCycle(), tickTrace, 0);
+        this.phosaniStates = attackCycle.getStates();
+    }
 
-    // Track attack cooldowns to prevent multiple timer resets from duplicate
-    // animations
-    // Maps NPC index to the tick when the cooldown expires
-    private Map<Integer, Integer> attackCooldowns = new HashMap<>();
+    @Override
+    public String getBossName() {
+        return definition.getName();
+    }
 
-    // Cooldown duration in ticks after detecting an attack
-    private static final int ATTACK_COOLDOWN_TICKS = 6;
+    @Override
+    public int[] getNpcIds() {
+        return definition.getNpcIds();
+    }
 
-    // Track curse state for each Phosani (NPC index -> remaining curse attacks)
-    private Map<Integer, Integer> phosaniCurseAttacks = new HashMap<>();
+    @Override
+    public int[] getAnimationIds() {
+        return definition.getAnimationIds();
+    }
 
-    // Curse duration constants
-    private static final int CURSE_DURATION_ATTACKS = 5;
+    @Override
+    public int[] getGraphicIds() {
+        return definition.getGraphicIds();
+    }
 
     @Override
-    public String getBossName() {
-        return "Phosani's Nightmare";
+    public int[] getGameObjectIds() {
+        return definition.getGameObjectIds();
+    }
+
+    public BossDefinition getDefinition() {
+        return definition;
     }
 
     @Override
-    public boolean isInBossArea(Client client) {
-        // Check if any Phosani NPCs are present
-        for (NPC npc : client.getTopLevelWorldView().npcs()) {
-            if (npc != null && PHOSANI_IDS.contains(npc.getId())) {
-                log.info("PhosaniHandler.isInBossArea: Found Phosani NPC with ID " + npc.getId() + " and index "
-                        + npc.getIndex());
-                return true;
-            }
-        }
-        log.debug("PhosaniHandler.isInBossArea: No Phosani NPCs found, checking all NPCs...");
-
-        // Debug: Log all NPC IDs to help identify if Phosani ID is wrong
-        int npcCount = 0;
-        for (NPC npc : client.getTopLevelWorldView().npcs()) {
-            if (npc != null) {
-                npcCount++;
-                if (npcCount <= 5) { // Only log first 5 NPCs to avoid spam
-                    log.debug(
-                            "PhosaniHandler.isInBossArea: Found NPC ID " + npc.getId() + " at index " + npc.getIndex());
-                }
-            }
+    public void onNpcSpawned(NPC npc) {
+        int id = npc.getId();
+        if (sleepwalkerIds.contains(id)) {
+            sleepwalkers.add(npc);
+        } else if (huskIds.contains(id)) {
+            husks.add(npc);
         }
-        log.debug("PhosaniHandler.isInBossArea: Total NPCs found: " + npcCount);
-
-        return false;
     }
 
     @Override
-    public void onAnimationChanged(AnimationChanged event) {
-        // Animation detection moved to onGameTick to match working example
+    public void onNpcDespawned(NPC npc) {
+        sleepwalkers.remove(npc);
+        husks.remove(npc);
     }
 
     @Override
-    @SuppressWarnings("deprecation") // getGraphic() is deprecated but still functional
-    public void onGraphicChanged(GraphicChanged event) {
-        Actor actor = event.getActor();
+    public void onAnimationChanged(AnimationChanged event) {
+        // The plugin only forwards animations from Phosani listed in getAnimationIds(),
+        // so attacks are picked up the tick they start
+        NPC npc = (NPC) event.getActor();
+        int index = npc.getIndex();
+        int slot = attackCycle.track(index);
+        int animationId = npc.getAnimation();
 
-        if (!(actor instanceof NPC)) {
-            return;
+        if (attackCycle.onAnimation(slot, animationId, client.getTickCount())) {
+            onAttack(slot, index);
         }
 
-        NPC npc = (NPC) actor;
-        if (!PHOSANI_IDS.contains(npc.getId())) {
-            return;
+        // Check for curse animation
+        if (animationId == curseAnimationId) {
+            phosaniStates.set(slot, COL_CURSE_ATTACKS, curseDurationAttacks);
+            tickTrace.record(TickTrace.Kind.CURSE, index, curseDurationAttacks);
         }
+    }
 
+    @Override
+    @SuppressWarnings("deprecation") // getGraphic() is deprecated but still functional
+    public void onGraphicChanged(GraphicChanged event) {
+        // The plugin only forwards graphics from Phosani listed in getGraphicIds()
+        NPC npc = (NPC) event.getActor();
         int index = npc.getIndex();
         int graphicId = npc.getGraphic();
 
-        // Log every graphic change event, including when graphics are cleared
-        log.info("Phosani (index " + index + ") attack graphic: graphicId=" + graphicId);
-
-        // Reset timer when graphic-based attacks are detected, but only if not in
-        // cooldown
-        if (isAttackGraphic(graphicId)) {
-            int currentTick = client.getTickCount();
-            Integer cooldownExpiry = attackCooldowns.get(index);
-
-            // Only reset timer if we're not in cooldown or cooldown has expired
-            if (cooldownExpiry == null || currentTick >= cooldownExpiry) {
-                int attackTicks = getAttackCycleTicks(index);
-                phosaniAttackTimers.put(index, attackTicks);
-                newlyInitializedTimers.add(index);
-                // Set cooldown to expire in 6 ticks
-                attackCooldowns.put(index, currentTick + ATTACK_COOLDOWN_TICKS);
-                log.info("Phosani (index " + index + ") graphic attack detected, timer reset to " + attackTicks +
-                        " (cooldown until tick " + (currentTick + ATTACK_COOLDOWN_TICKS) + ")");
-            } else {
-                log.info("Phosani (index " + index + ") graphic attack ignored - in cooldown until tick "
-                        + cooldownExpiry);
-            }
+        // Trace every graphic change event that reaches the handler
+        tickTrace.record(TickTrace.Kind.GRAPHIC, index, graphicId);
+
+        int slot = attackCycle.track(index);
+        if (attackCycle.onGraphic(slot, graphicId, client.getTickCount())) {
+            onAttack(slot, index);
         }
+    }
 
-        // Update phase based on graphics
-        if (graphicId == GRAPHIC_MAGE) {
-            phosaniPhases.put(index, PhosaniPhase.MAGE);
-        } else if (graphicId == GRAPHIC_RANGE) {
-            phosaniPhases.put(index, PhosaniPhase.RANGE);
-        } else if (graphicId == GRAPHIC_SPECIAL) {
-            phosaniPhases.put(index, PhosaniPhase.SPECIAL);
+    // An attack was accepted for this tick, whether from its animation or its graphic
+    private void onAttack(int slot, int index) {
+        // Decrement curse counter if active
+        int remainingCurseAttacks = phosaniStates.get(slot, COL_CURSE_ATTACKS);
+        if (remainingCurseAttacks > 0) {
+            phosaniStates.set(slot, COL_CURSE_ATTACKS, remainingCurseAttacks - 1);
+            tickTrace.record(TickTrace.Kind.CURSE, index, remainingCurseAttacks - 1);
         }
     }
 
@@ -165,204 +179,94 @@ public class PhosaniHandler implements BossHandler {
             return;
         }
 
-        log.debug("PhosaniHandler.onGameTick: Called, GameState=" + client.getGameState());
-
-        boolean phosaniPresent = false;
-        // Track all visible Phosanis in the scene
-        for (NPC npc : client.getTopLevelWorldView().npcs()) {
-            if (npc != null && PHOSANI_IDS.contains(npc.getId())) {
-                phosaniPresent = true;
-                int index = npc.getIndex();
-                log.debug("PhosaniHandler.onGameTick: Processing Phosani with index " + index);
-
-                // Log animation IDs for Phosani only when they change
-                int animationId = npc.getAnimation();
-                if (animationId != -1) {
-                    Integer lastLogged = lastLoggedAnimations.get(index);
-                    if (lastLogged == null || lastLogged != animationId) {
-                        log.info("Phosani (index " + index + ") animation: animationId=" + animationId);
-                        lastLoggedAnimations.put(index, animationId);
-                    }
-
-                    // Reset timer when Phosani attacks, but only if not in cooldown
-                    if (isAttackAnimation(animationId)) {
-                        int currentTick = client.getTickCount();
-                        Integer cooldownExpiry = attackCooldowns.get(index);
-
-                        // Only reset timer if we're not in cooldown or cooldown has expired
-                        if (cooldownExpiry == null || currentTick >= cooldownExpiry) {
-                            int attackTicks = getAttackCycleTicks(index);
-                            phosaniAttackTimers.put(index, attackTicks);
-                            newlyInitializedTimers.add(index);
-                            // Set cooldown to expire in 6 ticks
-                            attackCooldowns.put(index, currentTick + ATTACK_COOLDOWN_TICKS);
-                            log.info("Phosani (index " + index + ") attack detected, timer reset to " + attackTicks +
-                                    " (cooldown until tick " + (currentTick + ATTACK_COOLDOWN_TICKS) + ")");
-
-                            // Decrement curse counter if active
-                            if (isPhosaniCursed(index)) {
-                                int remainingCurseAttacks = phosaniCurseAttacks.get(index) - 1;
-                                if (remainingCurseAttacks <= 0) {
-                                    phosaniCurseAttacks.remove(index);
-                                    log.info("Phosani (index " + index + ") curse has ended");
-                                } else {
-                                    phosaniCurseAttacks.put(index, remainingCurseAttacks);
-                                    log.info("Phosani (index " + index + ") curse: " + remainingCurseAttacks
-                                            + " attacks remaining");
-                                }
-                            }
-                        } else {
-                            log.debug("Phosani (index " + index + ") attack ignored - in cooldown until tick "
-                                    + cooldownExpiry);
-                        }
-                    }
-
-                    // Check for curse animation
-                    if (animationId == ANIMATION_CURSE) {
-                        phosaniCurseAttacks.put(index, CURSE_DURATION_ATTACKS);
-                        log.info("Phosani (index " + index + ") curse activated! Duration: " + CURSE_DURATION_ATTACKS
-                                + " attacks");
-                    }
-
-                    // Update phase based on animation if available
-                    if (animationId == ANIMATION_MELEE) {
-                        phosaniPhases.put(index, PhosaniPhase.MELEE);
-                    } else if (animationId == ANIMATION_MAGE) {
-                        phosaniPhases.put(index, PhosaniPhase.MAGE);
-                    } else if (animationId == ANIMATION_RANGE) {
-                        phosaniPhases.put(index, PhosaniPhase.RANGE);
-                    } else if (animationId == ANIMATION_SPECIAL) {
-                        phosaniPhases.put(index, PhosaniPhase.SPECIAL);
-                    }
-                }
-
-                // Initialize with UNKNOWN if we haven't seen this Phosani before
-                if (!phosaniPhases.containsKey(index)) {
-                    phosaniPhases.put(index, PhosaniPhase.UNKNOWN);
-                    log.info("PhosaniHandler.onGameTick: Initialized phase to UNKNOWN for Phosani index " + index);
-                }
-
-                // Initialize timer if not present
-                if (!phosaniAttackTimers.containsKey(index)) {
-                    int attackTicks = getAttackCycleTicks(index);
-                    phosaniAttackTimers.put(index, attackTicks);
-                    newlyInitializedTimers.add(index);
-                    log.info("Phosani (index " + index + ") timer initialized to " + attackTicks);
-                } else {
-                    // Debug: Log current timer state every 10 ticks to avoid spam
-                    if (client.getTickCount() % 10 == 0) {
-                        int currentTimer = phosaniAttackTimers.get(index);
-                        log.debug("Phosani (index " + index + ") current timer value: " + currentTimer);
-                    }
-                }
-            }
+        // Spores whose despawn never arrived expire long after their lifetime
+        int currentTick = client.getTickCount();
+        if (spores.expire(currentTick)) {
+            publishSporeZones();
         }
 
+        List<NPC> phosanis = sceneSnapshot.getNpcs(SceneSnapshot.Group.BOSS);
+
         // If no Phosani exists, clear all data
-        if (!phosaniPresent) {
-            if (!phosaniPhases.isEmpty() || !phosaniAttackTimers.isEmpty()) {
+        if (phosanis.isEmpty()) {
+            if (!attackCycle.isEmpty()) {
                 log.info("PhosaniHandler.onGameTick: No Phosani present, clearing all data");
             }
-            phosaniPhases.clear();
-            phosaniAttackTimers.clear();
-            attackCooldowns.clear();
-            phosaniCurseAttacks.clear();
+            attackCycle.clear();
+            frameState = BossFrameState.EMPTY;
             return;
         }
 
-        // Update attack timers for all Phosanis
-        log.debug("PhosaniHandler.onGameTick: Updating timers for " + phosaniAttackTimers.size() + " Phosanis");
-        for (Map.Entry<Integer, Integer> entry : phosaniAttackTimers.entrySet()) {
-            int phosaniIndex = entry.getKey();
-            int currentTicks = entry.getValue();
-
-            // Skip countdown for newly initialized timers this tick
-            if (newlyInitializedTimers.contains(phosaniIndex)) {
-                log.debug("Phosani (index " + phosaniIndex + ") timer skip countdown (newly initialized): "
-                        + currentTicks);
-                continue;
-            }
+        tickTrace.record(TickTrace.Kind.TICK, -1, phosanis.size());
 
-            // Only decrement if the timer is greater than 1
-            if (currentTicks > 1) {
-                // Countdown the timer
-                int newTicks = currentTicks - 1;
-                phosaniAttackTimers.put(phosaniIndex, newTicks);
-                log.debug("Phosani (index " + phosaniIndex + ") timer countdown: " + currentTicks + " -> " + newTicks);
-
-            } else if (currentTicks == 1) {
-                // Timer at 1, next tick should be an attack
-                log.debug("Phosani (index " + phosaniIndex + ") timer at 1, waiting for attack");
-                // Keep timer at 1 until attack is detected
-            } else if (currentTicks <= 0) {
-                // Timer went below 1, reset it
-                int attackTicks = getAttackCycleTicks(phosaniIndex);
-                phosaniAttackTimers.put(phosaniIndex, attackTicks);
-                log.info(
-                        "Phosani (index " + phosaniIndex + ") timer reset from " + currentTicks + " to " + attackTicks);
-            }
+        // Start timers for Phosanis that have not attacked yet; attacks themselves
+        // arrive through onAnimationChanged and onGraphicChanged
+        for (int i = 0; i < phosanis.size(); i++) {
+            attackCycle.initTimer(attackCycle.track(phosanis.get(i).getIndex()), currentTick);
         }
 
-        // Clear the newly initialized timers set for next tick
-        if (!newlyInitializedTimers.isEmpty()) {
-            log.debug("PhosaniHandler.onGameTick: Clearing newly initialized timers: " + newlyInitializedTimers);
+        // Update attack timers for all Phosanis
+        attackCycle.tick(currentTick);
+
+        // Publish this tick's state for the overlay in a single volatile write
+        frameBuilder.begin(currentTick);
+        for (int i = 0; i < phosanis.size(); i++) {
+            NPC npc = phosanis.get(i);
+            int slot = attackCycle.track(npc.getIndex());
+            PhosaniPhase phase = PHASES[attackCycle.getSlotPhase(slot)];
+            int curseAttacks = phosaniStates.get(slot, COL_CURSE_ATTACKS);
+            frameBuilder.add(npc, phase.ordinal(), effectivePhase(phase, curseAttacks > 0).ordinal(),
+                    attackCycle.getSlotAttackTimer(slot), curseAttacks);
         }
-        newlyInitializedTimers.clear();
+        frameState = frameBuilder.build();
+    }
+
+    @Override
+    public BossFrameState getFrameState() {
+        return frameState;
     }
 
     @Override
     public Actor getBossActor(Client client) {
-        for (NPC npc : client.getTopLevelWorldView().npcs()) {
-            if (npc != null && PHOSANI_IDS.contains(npc.getId())) {
-                return npc;
-            }
-        }
-        return null;
+        return sceneSnapshot.getFirstNpc(SceneSnapshot.Group.BOSS);
     }
 
     @Override
     public void reset() {
-        phosaniPhases.clear();
-        phosaniAttackTimers.clear();
-        attackCooldowns.clear();
-        lastLoggedAnimations.clear();
-        newlyInitializedTimers.clear();
-        phosaniCurseAttacks.clear();
-        sporeDangerZones.clear();
+        attackCycle.clear();
+        sleepwalkers.clear();
+        husks.clear();
+        frameState = BossFrameState.EMPTY;
+        if (!spores.isEmpty()) {
+            spores.clear();
+            publishSporeZones();
+        }
     }
 
-    // Handle spore danger zone creation
+    // Handle spore danger zone creation, only spores reach here
+    @Override
     public void onGameObjectSpawned(GameObjectSpawned event) {
         GameObject gameObject = event.getGameObject();
-        if (gameObject.getId() == SPORE_GAME_OBJECT_ID) {
-            WorldPoint location = gameObject.getWorldLocation();
-            sporeDangerZones.add(location);
-            log.info("Spore danger zone activated at " + location);
+        WorldPoint location = gameObject.getWorldLocation();
+        if (spores.spawn(location, client.getTickCount())) {
+            publishSporeZones();
         }
+        tickTrace.record(TickTrace.Kind.SPORE_SPAWNED, -1, gameObject.getId());
     }
 
-    // Handle spore danger zone removal
+    // Handle spore danger zone removal, only spores reach here
+    @Override
     public void onGameObjectDespawned(GameObjectDespawned event) {
         GameObject gameObject = event.getGameObject();
-        if (gameObject.getId() == SPORE_GAME_OBJECT_ID) {
-            WorldPoint location = gameObject.getWorldLocation();
-            sporeDangerZones.remove(location);
-            log.info("Spore danger zone deactivated at " + location);
+        WorldPoint location = gameObject.getWorldLocation();
+        if (spores.despawn(location)) {
+            publishSporeZones();
         }
+        tickTrace.record(TickTrace.Kind.SPORE_DESPAWNED, -1, gameObject.getId());
     }
 
-    // Helper methods
-    private boolean isAttackAnimation(int animationId) {
-        return animationId == ANIMATION_MELEE ||
-                animationId == ANIMATION_MAGE ||
-                animationId == ANIMATION_RANGE;
-        // ANIMATION_SPECIAL (8597) is NOT counted as an attack
-    }
-
-    private boolean isAttackGraphic(int graphicId) {
-        return graphicId == GRAPHIC_MAGE ||
-                graphicId == GRAPHIC_RANGE ||
-                graphicId == GRAPHIC_SPECIAL;
+    private void publishSporeZones() {
+        sporeZoneSnapshot = spores.snapshot(sporeZoneSnapshot);
     }
 
     public boolean isPhosaniInEnragePhase(int npcIndex) {
@@ -370,19 +274,15 @@ public class PhosaniHandler implements BossHandler {
     }
 
     public boolean isPhosaniCursed(int npcIndex) {
-        return phosaniCurseAttacks.containsKey(npcIndex);
+        return getPhosaniCurseAttacksRemaining(npcIndex) > 0;
     }
 
     public int getPhosaniCurseAttacksRemaining(int npcIndex) {
-        return phosaniCurseAttacks.getOrDefault(npcIndex, 0);
-    }
-
-    private int getAttackCycleTicks(int npcIndex) {
-        return ATTACK_CYCLE_TICKS; // Always 6 ticks - no enrage phase
+        return phosaniStates.getOrDefault(npcIndex, COL_CURSE_ATTACKS, 0);
     }
 
     public PhosaniPhase getPhosaniPhase(int npcIndex) {
-        return phosaniPhases.getOrDefault(npcIndex, PhosaniPhase.UNKNOWN);
+        return PHASES[attackCycle.getPhase(npcIndex)];
     }
 
     /**
@@ -399,10 +299,12 @@ public class PhosaniHandler implements BossHandler {
      * attack type.
      */
     public PhosaniPhase getEffectivePhase(int npcIndex) {
-        PhosaniPhase actualPhase = getPhosaniPhase(npcIndex);
+        return effectivePhase(getPhosaniPhase(npcIndex), isPhosaniCursed(npcIndex));
+    }
 
+    private static PhosaniPhase effectivePhase(PhosaniPhase actualPhase, boolean cursed) {
         // If not cursed, return normal phase
-        if (!isPhosaniCursed(npcIndex)) {
+        if (!cursed) {
             return actualPhase;
         }
 
@@ -429,21 +331,48 @@ public class PhosaniHandler implements BossHandler {
     }
 
     public int getPhosaniAttackTimer(int npcIndex) {
-        return phosaniAttackTimers.getOrDefault(npcIndex, ATTACK_CYCLE_TICKS);
+        return attackCycle.getAttackTimer(npcIndex);
     }
 
     public List<NPC> getPhosaniNpcs() {
-        List<NPC> phosanis = new ArrayList<>();
-        for (NPC npc : client.getTopLevelWorldView().npcs()) {
-            if (npc != null && PHOSANI_IDS.contains(npc.getId())) {
-                phosanis.add(npc);
-            }
-        }
-        return phosanis;
+        return sceneSnapshot.getNpcs(SceneSnapshot.Group.BOSS);
     }
 
-    public Set<WorldPoint> getSporeDangerZones() {
-        return new HashSet<>(sporeDangerZones);
+    /**
+     * Get the live set of sleepwalkers, updated as they spawn and despawn
+     */
+    public TrackedNpcSet getSleepwalkerNpcs() {
+        return sleepwalkers;
+    }
+
+    /**
+     * Get the live set of husks, updated as they spawn and despawn
+     */
+    public TrackedNpcSet getHuskNpcs() {
+        return husks;
+    }
+
+    /**
+     * Size in tiles of the square each spore threatens
+     */
+    public int getSporeZoneSize() {
+        return sporeZoneSize;
+    }
+
+    /**
+     * True if the tile is inside any spore's danger zone. A single lookup,
+     * for use on the client thread.
+     */
+    public boolean isInSporeZone(WorldPoint point) {
+        return spores.isDangerous(point.getX(), point.getY(), point.getPlane());
+    }
+
+    /**
+     * Get the current spore locations. The snapshot is immutable and only
+     * replaced when spores change, so this does not copy.
+     */
+    public SporeZoneSnapshot getSporeDangerZones() {
+        return sporeZoneSnapshot;
     }
 
     // Phosani combat phases
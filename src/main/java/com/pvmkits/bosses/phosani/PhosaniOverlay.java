@@ -1,39 +1,94 @@
 package com.pvmkits.bosses.phosani;
 
-import com.pvmkits.PvmKitsConfig;
 import com.pvmkits.PvmKitsPlugin;
+import com.pvmkits.PvmKitsSettings;
+import com.pvmkits.core.BossFrameState;
+import com.pvmkits.core.FootprintCache;
+import com.pvmkits.core.HullCache;
+import com.pvmkits.core.LatencyHistogram;
+import com.pvmkits.core.PerformanceMonitor;
+import com.pvmkits.core.RenderGovernor;
+import com.pvmkits.core.RetainedLayer;
+import com.pvmkits.core.TileProjectionMemo;
+import com.pvmkits.core.TimerGlyphCache;
+import com.pvmkits.core.TrackedNpcSet;
 import net.runelite.api.Client;
 import net.runelite.api.NPC;
-import net.runelite.api.Perspective;
+import net.runelite.api.Player;
 import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.client.ui.overlay.*;
 
 import javax.inject.Inject;
 import java.awt.*;
-import java.util.Set;
+import java.awt.geom.Area;
+import java.awt.geom.Path2D;
+import java.util.Arrays;
+import java.util.List;
 
 public class PhosaniOverlay extends Overlay {
 
     private final Client client;
     private final PvmKitsPlugin plugin;
-    private final PvmKitsConfig config;
-    private static final int PHOSANI_SIZE = 5; // Phosani is 5x5 tiles
-    private static final Set<Integer> PHOSANI_IDS = Set.of(9416, 9417, 9418, 9419, 9420, 9421, 9422, 9423, 9424, 11153,
-            11154, 11155, 377);
-
-    // Sleepwalker NPC IDs for highlighting
-    private static final Set<Integer> SLEEPWALKER_IDS = Set.of(1029, 1030, 1031, 1032, 5267, 5368, 9446, 9447, 9448,
-            9449, 9450, 9451, 9470, 9801, 9802);
-
-    // Husk NPC IDs for highlighting
-    private static final Set<Integer> HUSK_IDS = Set.of(9454, 9455, 9466, 9467);
+    private final FootprintCache footprintCache;
+    private final TileProjectionMemo tileProjections;
+    private final PerformanceMonitor performanceMonitor;
+    private final LatencyHistogram renderLatency;
+
+    // Timer glyph color slots
+    private static final int TIMER_NORMAL = 0;
+    private static final int TIMER_WARNING = 1;
+
+    private static final PhosaniHandler.PhosaniPhase[] PHASES = PhosaniHandler.PhosaniPhase.values();
+
+    // Spore danger zone colors and stroke
+    private static final Color SPORE_FILL_COLOR = new Color(255, 0, 0, 80); // Soft red fill with low opacity
+    private static final Color SPORE_BORDER_COLOR = new Color(255, 0, 0, 180); // Soft red with transparency
+    private static final Color SPORE_WARNING_COLOR = new Color(255, 0, 0, 160); // Strong red on the player's tile
+    private static final BasicStroke SPORE_BORDER_STROKE = new BasicStroke(3); // Thicker for visibility
+    private static final Color SPORE_TIMER_COLOR = new Color(255, 220, 220); // Pale red, readable over the fill
+    private static final int NO_ANCHOR = Integer.MIN_VALUE;
+    private static final BasicStroke THIN_STROKE = new BasicStroke(1); // Borders when the governor drops quality
+
+    // Sleepwalker and husk colors and stroke
+    private static final Color SLEEPWALKER_COLOR = new Color(255, 100, 100, 120); // Soft red with transparency
+    private static final Color SLEEPWALKER_BORDER_COLOR = new Color(255, 100, 100, 255); // Full opacity for border
+    private static final Color SLEEPWALKER_HULL_COLOR = new Color(255, 0, 0, 200); // Slightly more opaque red
+    private static final BasicStroke SLEEPWALKER_STROKE = new BasicStroke(2);
+
+    // Settings snapshot the render resources were built from, replaced on config change
+    private PvmKitsSettings settings;
+    private final TimerGlyphCache timerGlyphs = new TimerGlyphCache(0);
+    private final TimerGlyphCache sporeTimerGlyphs = new TimerGlyphCache(1);
+
+    // Drops hulls, fills and per-frame reprojection when rendering runs over budget
+    private final RenderGovernor renderGovernor = new RenderGovernor("Phosani overlay");
+
+    // Last drawn frame, reused while nothing moved when retained overlays are on
+    private final RetainedLayer retainedLayer = new RetainedLayer();
+
+    // Sleepwalker and husk tiles and hulls, refilled every frame
+    private final Path2D.Float addTiles = new Path2D.Float();
+    private final Path2D.Float addHulls = new Path2D.Float();
+    private final HullCache hullCache = new HullCache();
+
+    // Union of all spore zones, rebuilt when the spores or the camera change
+    private Area sporeArea;
+    private int sporeAreaVersion;
+    private int sporeAreaCameraVersion;
+    // Canvas center of each spore's tile, by snapshot index; NO_ANCHOR when off screen
+    private int[] sporeAnchorX = new int[0];
+    private int[] sporeAnchorY = new int[0];
 
     @Inject
-    public PhosaniOverlay(Client client, PvmKitsPlugin plugin, PvmKitsConfig config) {
+    public PhosaniOverlay(Client client, PvmKitsPlugin plugin, FootprintCache footprintCache,
+            TileProjectionMemo tileProjections, PerformanceMonitor performanceMonitor) {
         this.client = client;
         this.plugin = plugin;
-        this.config = config;
+        this.footprintCache = footprintCache;
+        this.tileProjections = tileProjections;
+        this.performanceMonitor = performanceMonitor;
+        this.renderLatency = performanceMonitor.histogram("Phosani overlay");
         setPosition(OverlayPosition.DYNAMIC);
         setLayer(OverlayLayer.ABOVE_SCENE);
     }
@@ -41,8 +96,8 @@ public class PhosaniOverlay extends Overlay {
     @Override
     public Dimension render(Graphics2D graphics) {
         // Only render if any Phosani features are enabled
-        if (!config.highlightPhosani() && !config.showPhosaniAttackTimers() && !config.highlightSporeDangerZones()
-                && !config.highlightSleepwalkers()) {
+        PvmKitsSettings current = plugin.getSettings();
+        if (!current.isPhosaniEnabled()) {
             return null;
         }
 
@@ -52,273 +107,322 @@ public class PhosaniOverlay extends Overlay {
             return null;
         }
 
-        // Render existing Phosani highlights
-        for (NPC npc : client.getTopLevelWorldView().npcs()) {
-            if (npc == null || !PHOSANI_IDS.contains(npc.getId())) {
-                continue;
+        // Only Phosani's own NPCs are bucketed while Phosani is the active boss
+        if (plugin.getActiveBossHandler() != phosaniHandler) {
+            return null;
+        }
+
+        // Only frames that draw something are timed
+        long start = performanceMonitor.start();
+        long frameStart = renderGovernor.beginFrame();
+
+        if (current != settings) {
+            applySettings(current);
+        }
+        RenderGovernor.Quality quality = renderGovernor.getQuality();
+        if (renderGovernor.shouldReproject(client.getTickCount())) {
+            footprintCache.beginFrame(client);
+        }
+
+        // Render Phosani highlights from the state published on the last tick,
+        // consistent for the whole frame
+        BossFrameState frame = phosaniHandler.getFrameState();
+        if (!settings.isRetainedOverlays() && quality.redrawsEveryFrame()) {
+            // Drop the image kept while the governor was at TICK_ONLY
+            retainedLayer.release();
+            renderScene(graphics, phosaniHandler, frame, quality, quality.drawsHulls());
+        } else {
+            // Only redrawn when the tick, the camera, the spores or an NPC changed,
+            // or at TICK_ONLY quality when the tick changed
+            long signature = quality.redrawsEveryFrame() ? contentSignature(phosaniHandler, frame, quality)
+                    : RetainedLayer.mix(RetainedLayer.EMPTY_SIGNATURE, client.getTickCount());
+            Graphics2D layer = retainedLayer.redraw(graphics, client.getCanvasWidth(), client.getCanvasHeight(),
+                    signature);
+            if (layer != null) {
+                renderScene(layer, phosaniHandler, frame, quality, false);
+                layer.dispose();
             }
+            retainedLayer.draw(graphics);
 
-            // Get the effective phase color for this Phosani (accounts for curse)
-            PhosaniHandler.PhosaniPhase effectivePhase = phosaniHandler.getEffectivePhase(npc.getIndex());
-            Color tileColor = effectivePhase.getColor();
+            // Hulls follow every animation frame, so they are drawn over the
+            // layer each frame rather than redrawing it
+            if (settings.isHighlightSleepwalkers() && quality.drawsHulls()) {
+                renderAddHulls(graphics, phosaniHandler);
+            }
+        }
+
+        renderGovernor.endFrame(frameStart);
+        performanceMonitor.stop(renderLatency, start);
+        return null;
+    }
 
+    private void renderScene(Graphics2D graphics, PhosaniHandler phosaniHandler, BossFrameState frame,
+            RenderGovernor.Quality quality, boolean drawHulls) {
+        int bossSize = phosaniHandler.getDefinition().getSize();
+        for (int i = 0; i < frame.size(); i++) {
             // Get base tile location of the NPC
-            LocalPoint basePoint = npc.getLocalLocation();
+            LocalPoint basePoint = frame.getNpc(i).getLocalLocation();
             if (basePoint == null) {
                 continue;
             }
 
-            // Render attack style overlay if enabled
-            if (config.highlightPhosani()) {
-                renderAttackStyleOverlay(graphics, npc, tileColor);
+            // Render attack style overlay if enabled, in the effective phase (accounts for curse)
+            if (settings.isHighlightPhosani()) {
+                renderAttackStyleOverlay(graphics, basePoint, bossSize, PHASES[frame.getEffectivePhase(i)], quality);
             }
 
             // Render attack timer if enabled
-            if (config.showPhosaniAttackTimers()) {
-                renderAttackTimer(graphics, npc, phosaniHandler);
+            if (settings.isShowPhosaniAttackTimers()) {
+                renderAttackTimer(graphics, basePoint, frame.getAttackTimer(i));
             }
         }
 
         // Render spore danger zones if enabled
-        if (config.highlightSporeDangerZones()) {
-            renderSporeDangerZones(graphics, phosaniHandler);
+        if (settings.isHighlightSporeDangerZones()) {
+            renderSporeDangerZones(graphics, phosaniHandler, quality);
         }
 
         // Render sleepwalker highlighting if enabled
-        if (config.highlightSleepwalkers()) {
-            renderSleepwalkerHighlights(graphics);
+        if (settings.isHighlightSleepwalkers()) {
+            renderSleepwalkerHighlights(graphics, phosaniHandler, quality, drawHulls);
         }
-
-        return null;
     }
 
-    @SuppressWarnings("deprecation") // Using deprecated LocalPoint constructor to match working example
-    private void renderAttackStyleOverlay(Graphics2D graphics, NPC npc, Color tileColor) {
-        LocalPoint basePoint = npc.getLocalLocation();
-        if (basePoint == null) {
-            return;
+    // Everything that moves or changes a shape this overlay draws
+    private long contentSignature(PhosaniHandler phosaniHandler, BossFrameState frame,
+            RenderGovernor.Quality quality) {
+        long signature = RetainedLayer.EMPTY_SIGNATURE;
+        signature = RetainedLayer.mix(signature, frame.getTick());
+        signature = RetainedLayer.mix(signature, footprintCache.getCameraVersion());
+        signature = RetainedLayer.mix(signature, quality.ordinal());
+        for (int i = 0; i < frame.size(); i++) {
+            signature = mixPosition(signature, frame.getNpc(i));
         }
 
-        // Calculate the southwest corner of the 5x5 area
-        int swX = basePoint.getX() - (Perspective.LOCAL_TILE_SIZE * (PHOSANI_SIZE - 1) / 2);
-        int swY = basePoint.getY() - (Perspective.LOCAL_TILE_SIZE * (PHOSANI_SIZE - 1) / 2);
+        if (settings.isHighlightSporeDangerZones()) {
+            signature = RetainedLayer.mix(signature, phosaniHandler.getSporeDangerZones().getVersion());
+            // Spore timers and the player's tile change on ticks without a boss frame too
+            signature = RetainedLayer.mix(signature, client.getTickCount());
+        }
 
-        // Calculate the northeast corner of the 5x5 area
-        int neX = swX + ((PHOSANI_SIZE - 1) * Perspective.LOCAL_TILE_SIZE);
-        int neY = swY + ((PHOSANI_SIZE - 1) * Perspective.LOCAL_TILE_SIZE);
+        // Add hulls are drawn outside the layer, only their tiles are in it
+        if (settings.isHighlightSleepwalkers()) {
+            signature = mixAdds(signature, phosaniHandler.getSleepwalkerNpcs());
+            signature = mixAdds(signature, phosaniHandler.getHuskNpcs());
+        }
+        return signature;
+    }
 
-        // Create LocalPoints for the four corners of the 5x5 area
-        LocalPoint swPoint = new LocalPoint(swX, swY);
-        LocalPoint sePoint = new LocalPoint(neX, swY);
-        LocalPoint nePoint = new LocalPoint(neX, neY);
-        LocalPoint nwPoint = new LocalPoint(swX, neY);
+    private static long mixAdds(long signature, TrackedNpcSet npcs) {
+        for (int i = 0; i < npcs.size(); i++) {
+            signature = mixPosition(signature, npcs.get(i));
+        }
+        return signature;
+    }
 
-        // Get the polygons for each corner tile
-        Polygon swPoly = Perspective.getCanvasTilePoly(client, swPoint);
-        Polygon sePoly = Perspective.getCanvasTilePoly(client, sePoint);
-        Polygon nePoly = Perspective.getCanvasTilePoly(client, nePoint);
-        Polygon nwPoly = Perspective.getCanvasTilePoly(client, nwPoint);
+    private static long mixPosition(long signature, NPC npc) {
+        LocalPoint location = npc.getLocalLocation();
+        signature = RetainedLayer.mix(signature, location == null ? -1 : location.getX());
+        return RetainedLayer.mix(signature, location == null ? -1 : location.getY());
+    }
 
-        if (swPoly == null || sePoly == null || nePoly == null || nwPoly == null) {
+    private void renderAttackStyleOverlay(Graphics2D graphics, LocalPoint basePoint, int size,
+            PhosaniHandler.PhosaniPhase phase, RenderGovernor.Quality quality) {
+        // Consolidated outline of the boss footprint, reused while nothing moves
+        Polygon borderPoly = footprintCache.getFootprint(client, basePoint, size);
+        if (borderPoly == null) {
             return;
         }
 
-        // Create a consolidated area polygon
-        Polygon borderPoly = new Polygon();
-
-        // Add the outer points of the 5x5 area to create the border
-        // South edge (SW to SE)
-        addPointsToPolygon(borderPoly, swPoly, 0, 1);
-        // East edge (SE to NE)
-        addPointsToPolygon(borderPoly, sePoly, 1, 2);
-        // North edge (NE to NW)
-        addPointsToPolygon(borderPoly, nePoly, 2, 3);
-        // West edge (NW to SW)
-        addPointsToPolygon(borderPoly, nwPoly, 3, 0);
-
-        // Fill entire 5x5 area with semi-transparent color
-        graphics.setColor(new Color(tileColor.getRed(), tileColor.getGreen(),
-                tileColor.getBlue(), config.phosaniTransparency()));
-        graphics.fill(borderPoly);
-
-        // Draw just the outer border with solid color
-        graphics.setColor(tileColor);
+        // Fill the entire footprint with semi-transparent color
+        if (quality.drawsPhaseFills()) {
+            graphics.setColor(settings.getPhosaniPhaseFillColor(phase));
+            graphics.fill(borderPoly);
+        }
+
+        // Draw just the outer border with solid color, kept at every quality level
+        graphics.setColor(phase.getColor());
         graphics.draw(borderPoly);
     }
 
-    private void renderAttackTimer(Graphics2D graphics, NPC npc, PhosaniHandler phosaniHandler) {
-        // Display attack timer at a static position relative to Phosani's hull
-        int npcIndex = npc.getIndex();
-        int attackTimer = phosaniHandler.getPhosaniAttackTimer(npcIndex);
-
+    private void renderAttackTimer(Graphics2D graphics, LocalPoint basePoint, int attackTimer) {
         // Only render if timer is valid and greater than 0
         if (attackTimer > 0) {
             // Use NPC's base tile location for rock-solid positioning
-            // This moves with Phosani but doesn't wobble with animations
-            LocalPoint basePoint = npc.getLocalLocation();
-            if (basePoint != null) {
-                // Convert to canvas coordinates using the stable base tile location
-                Polygon baseTilePoly = Perspective.getCanvasTilePoly(client, basePoint);
-                if (baseTilePoly != null) {
-                    // Get the center of the base tile polygon
-                    Rectangle tileRect = baseTilePoly.getBounds();
-                    int centerX = tileRect.x + tileRect.width / 2;
-                    // Position timer below the base tile center (at feet level)
-                    int stableY = tileRect.y + tileRect.height;
-
-                    // Set text properties - make text bigger
-                    String timerText = String.valueOf(attackTimer);
-                    int fontSize = Math.max(20, config.phosaniTimerTextSize() + 8); // Minimum 24px, +8 from config
-                    java.awt.Font font = new java.awt.Font("Arial", java.awt.Font.BOLD, fontSize);
-                    graphics.setFont(font);
-
-                    java.awt.FontMetrics metrics = graphics.getFontMetrics();
-                    int textWidth = metrics.stringWidth(timerText);
-                    int textHeight = metrics.getHeight();
-                    int textX = centerX - (textWidth / 2);
-                    int textY = stableY + (textHeight / 4);
-
-                    // Draw main text - use config colors
-                    Color textColor;
-                    if (attackTimer == 1) {
-                        textColor = config.phosaniWarningColor(); // Bright red for '1'
-                    } else {
-                        textColor = config.phosaniNormalTimerColor(); // Bright teal for other numbers
-                    }
-                    graphics.setColor(textColor);
-                    graphics.drawString(timerText, textX, textY);
-                }
+            // This moves with Phosani but doesn't wobble with animations, and
+            // is usually already projected for the footprint this frame
+            Polygon baseTilePoly = tileProjections.getTilePoly(client, basePoint);
+            if (baseTilePoly != null) {
+                // Get the center of the base tile polygon
+                Rectangle tileRect = baseTilePoly.getBounds();
+                int centerX = tileRect.x + tileRect.width / 2;
+                // Position timer below the base tile center (at feet level)
+                int stableY = tileRect.y + tileRect.height;
+
+                // Bright red for '1', bright teal for other numbers
+                int colorIndex = attackTimer == 1 ? TIMER_WARNING : TIMER_NORMAL;
+                timerGlyphs.draw(graphics, attackTimer, colorIndex, centerX, stableY);
             }
         }
     }
 
-    // Helper method to add points from one polygon to another with safety checks
-    private void addPointsToPolygon(Polygon targetPoly, Polygon sourcePoly, int startIdx, int endIdx) {
-        if (sourcePoly == null || sourcePoly.npoints == 0) {
+    private void applySettings(PvmKitsSettings settings) {
+        timerGlyphs.configure(settings.getPhosaniTimerFont(), settings.getPhosaniNormalTimerColor(),
+                settings.getPhosaniWarningColor());
+        sporeTimerGlyphs.configure(settings.getSporeTimerFont(), SPORE_TIMER_COLOR);
+        renderGovernor.setBudgetMicros(settings.getOverlayFrameBudget());
+        if (settings.isRetainedOverlays()) {
+            retainedLayer.invalidate();
+        } else {
+            retainedLayer.release();
+        }
+        this.settings = settings;
+    }
+
+    private void renderSporeDangerZones(Graphics2D graphics, PhosaniHandler phosaniHandler,
+            RenderGovernor.Quality quality) {
+        SporeZoneSnapshot spores = phosaniHandler.getSporeDangerZones();
+        if (spores.isEmpty()) {
             return;
         }
 
-        int sourcePoints = sourcePoly.npoints;
-        // Ensure indices are within bounds
-        startIdx = Math.max(0, Math.min(startIdx, sourcePoints - 1));
-        endIdx = Math.max(0, Math.min(endIdx, sourcePoints - 1));
+        // The merged area is in screen space, so it follows both the spores and the camera
+        int cameraVersion = footprintCache.getCameraVersion();
+        if (sporeArea == null || spores.getVersion() != sporeAreaVersion || cameraVersion != sporeAreaCameraVersion) {
+            sporeArea = buildSporeArea(spores, phosaniHandler.getSporeZoneSize());
+            sporeAreaVersion = spores.getVersion();
+            sporeAreaCameraVersion = cameraVersion;
+        }
+
+        // Overlapping zones are merged, so the fill alpha does not stack
+        if (quality.drawsHighlightFills()) {
+            graphics.setColor(SPORE_FILL_COLOR);
+            graphics.fill(sporeArea);
+        }
 
-        if (startIdx < sourcePoints && endIdx < sourcePoints) {
-            targetPoly.addPoint(sourcePoly.xpoints[startIdx], sourcePoly.ypoints[startIdx]);
-            targetPoly.addPoint(sourcePoly.xpoints[endIdx], sourcePoly.ypoints[endIdx]);
+        graphics.setColor(SPORE_BORDER_COLOR);
+        graphics.setStroke(quality.drawsThickStrokes() ? SPORE_BORDER_STROKE : THIN_STROKE);
+        graphics.draw(sporeArea);
+
+        // Warn when the player stands inside a zone
+        Player player = client.getLocalPlayer();
+        WorldPoint playerLocation = player == null ? null : player.getWorldLocation();
+        if (playerLocation != null && phosaniHandler.isInSporeZone(playerLocation)) {
+            LocalPoint playerPoint = LocalPoint.fromWorld(client, playerLocation);
+            Polygon playerTile = playerPoint == null ? null : tileProjections.getTilePoly(client, playerPoint);
+            if (playerTile != null) {
+                graphics.setColor(SPORE_WARNING_COLOR);
+                graphics.fill(playerTile);
+            }
+        }
+
+        // Ticks left on each spore, counted from its spawn tick
+        if (settings.isShowSporeTimers()) {
+            int tick = client.getTickCount();
+            for (int i = 0; i < sporeAnchorX.length; i++) {
+                int remaining = spores.getExpiryTick(i) - tick;
+                if (remaining > 0 && sporeAnchorX[i] != NO_ANCHOR) {
+                    sporeTimerGlyphs.draw(graphics, remaining, 0, sporeAnchorX[i], sporeAnchorY[i]);
+                }
+            }
         }
     }
 
-    private void renderSporeDangerZones(Graphics2D graphics, PhosaniHandler phosaniHandler) {
-        // Get spore danger zones from handler
-        for (WorldPoint sporeLocation : phosaniHandler.getSporeDangerZones()) {
-            // Render 3x3 danger zone around each spore (center + 1 tile radius)
-            renderSporeDangerZone(graphics, sporeLocation);
+    // Also places the spore timer anchors, which move with the same camera
+    private Area buildSporeArea(SporeZoneSnapshot spores, int zoneSize) {
+        List<WorldPoint> locations = spores.getLocations();
+        sporeAnchorX = new int[locations.size()];
+        sporeAnchorY = new int[locations.size()];
+        Arrays.fill(sporeAnchorX, NO_ANCHOR);
+
+        Area area = new Area();
+        for (int i = 0; i < locations.size(); i++) {
+            // Danger zone around each spore (3x3: center + 1 tile radius)
+            LocalPoint centerPoint = LocalPoint.fromWorld(client, locations.get(i));
+            if (centerPoint == null) {
+                continue;
+            }
+
+            Polygon tilePoly = tileProjections.getTilePoly(client, centerPoint);
+            if (tilePoly != null) {
+                Rectangle tileRect = tilePoly.getBounds();
+                sporeAnchorX[i] = tileRect.x + tileRect.width / 2;
+                sporeAnchorY[i] = tileRect.y + tileRect.height / 2;
+            }
+
+            Polygon zonePoly = footprintCache.getFootprint(client, centerPoint, zoneSize);
+            if (zonePoly != null) {
+                area.add(new Area(zonePoly));
+            }
         }
+        return area;
     }
 
-    @SuppressWarnings("deprecation") // Using deprecated LocalPoint constructor to match working example
-    private void renderSporeDangerZone(Graphics2D graphics, WorldPoint centerLocation) {
-        // Create 3x3 area around the spore location (center + 1 tile radius)
-        LocalPoint centerPoint = LocalPoint.fromWorld(client, centerLocation);
-        if (centerPoint == null) {
+    private void renderSleepwalkerHighlights(Graphics2D graphics, PhosaniHandler phosaniHandler,
+            RenderGovernor.Quality quality, boolean drawHulls) {
+        TrackedNpcSet sleepwalkers = phosaniHandler.getSleepwalkerNpcs();
+        TrackedNpcSet husks = phosaniHandler.getHuskNpcs();
+        if (sleepwalkers.isEmpty() && husks.isEmpty()) {
             return;
         }
 
-        // Calculate the southwest corner of the 3x3 area
-        int swX = centerPoint.getX() - Perspective.LOCAL_TILE_SIZE;
-        int swY = centerPoint.getY() - Perspective.LOCAL_TILE_SIZE;
+        // Sleepwalkers and husks share their colors, so every tile goes into
+        // one shape and every hull into another, each drawn once
+        addTiles.reset();
+        appendNpcTiles(sleepwalkers);
+        appendNpcTiles(husks);
 
-        // Calculate the northeast corner of the 3x3 area
-        int neX = swX + (2 * Perspective.LOCAL_TILE_SIZE);
-        int neY = swY + (2 * Perspective.LOCAL_TILE_SIZE);
-
-        // Create LocalPoints for the four corners of the 3x3 area
-        LocalPoint swPoint = new LocalPoint(swX, swY);
-        LocalPoint sePoint = new LocalPoint(neX, swY);
-        LocalPoint nePoint = new LocalPoint(neX, neY);
-        LocalPoint nwPoint = new LocalPoint(swX, neY);
+        // Fill tiles with semi-transparent color
+        if (quality.drawsHighlightFills()) {
+            graphics.setColor(SLEEPWALKER_COLOR);
+            graphics.fill(addTiles);
+        }
 
-        // Get the polygons for each corner tile
-        Polygon swPoly = Perspective.getCanvasTilePoly(client, swPoint);
-        Polygon sePoly = Perspective.getCanvasTilePoly(client, sePoint);
-        Polygon nePoly = Perspective.getCanvasTilePoly(client, nePoint);
-        Polygon nwPoly = Perspective.getCanvasTilePoly(client, nwPoint);
+        // Draw tile borders with solid color
+        graphics.setColor(SLEEPWALKER_BORDER_COLOR);
+        graphics.setStroke(quality.drawsThickStrokes() ? SLEEPWALKER_STROKE : THIN_STROKE);
+        graphics.draw(addTiles);
 
-        if (swPoly == null || sePoly == null || nePoly == null || nwPoly == null) {
-            return;
+        // Draw hull outlines with soft red, the most expensive part and the first to go
+        if (drawHulls) {
+            renderAddHulls(graphics, phosaniHandler);
         }
-
-        // Create a consolidated area polygon for the 3x3 border
-        Polygon borderPoly = new Polygon();
-
-        // Add the outer points of the 3x3 area to create the border
-        // South edge (SW to SE)
-        addPointsToPolygon(borderPoly, swPoly, 0, 1);
-        // East edge (SE to NE)
-        addPointsToPolygon(borderPoly, sePoly, 1, 2);
-        // North edge (NE to NW)
-        addPointsToPolygon(borderPoly, nePoly, 2, 3);
-        // West edge (NW to SW)
-        addPointsToPolygon(borderPoly, nwPoly, 3, 0);
-
-        // Fill the 3x3 area with soft red semi-transparent color
-        graphics.setColor(new Color(255, 0, 0, 80)); // Soft red fill with low opacity
-        graphics.fill(borderPoly);
-
-        // Draw only the border with soft red color (more opaque)
-        graphics.setColor(new Color(255, 0, 0, 180)); // Soft red with transparency
-        graphics.setStroke(new BasicStroke(3)); // Make border thicker for visibility
-        graphics.draw(borderPoly);
     }
 
-    private void renderSleepwalkerHighlights(Graphics2D graphics) {
-        // Soft red color for sleepwalkers and husks
-        Color softRed = new Color(255, 100, 100, 120); // Soft red with transparency
+    private void renderAddHulls(Graphics2D graphics, PhosaniHandler phosaniHandler) {
+        addHulls.reset();
+        appendNpcHulls(phosaniHandler.getSleepwalkerNpcs());
+        appendNpcHulls(phosaniHandler.getHuskNpcs());
+
+        graphics.setColor(SLEEPWALKER_HULL_COLOR);
+        graphics.setStroke(SLEEPWALKER_STROKE);
+        graphics.draw(addHulls);
+    }
 
-        // Find and highlight all sleepwalkers and husks
-        for (NPC npc : client.getTopLevelWorldView().npcs()) {
-            if (npc == null) {
+    private void appendNpcTiles(TrackedNpcSet npcs) {
+        for (int i = 0; i < npcs.size(); i++) {
+            LocalPoint npcLocation = npcs.get(i).getLocalLocation();
+            if (npcLocation == null) {
                 continue;
             }
 
-            // Check if this NPC is a sleepwalker or husk
-            boolean isSleepwalker = SLEEPWALKER_IDS.contains(npc.getId());
-            boolean isHusk = HUSK_IDS.contains(npc.getId());
-
-            if (isSleepwalker || isHusk) {
-                renderNpcHighlight(graphics, npc, softRed);
+            // Tile through the footprint cache so it is not reprojected
+            // between ticks at the lowest quality level
+            Polygon tilePoly = footprintCache.getFootprint(client, npcLocation, 1);
+            if (tilePoly != null) {
+                addTiles.append(tilePoly, false);
             }
         }
     }
 
-    private void renderNpcHighlight(Graphics2D graphics, NPC npc, Color highlightColor) {
-        LocalPoint npcLocation = npc.getLocalLocation();
-        if (npcLocation == null) {
-            return;
-        }
-
-        // Highlight the tile
-        Polygon tilePoly = Perspective.getCanvasTilePoly(client, npcLocation);
-        if (tilePoly != null) {
-            // Fill tile with semi-transparent color
-            graphics.setColor(highlightColor);
-            graphics.fill(tilePoly);
-
-            // Draw tile border with solid color
-            graphics.setColor(new Color(highlightColor.getRed(), highlightColor.getGreen(),
-                    highlightColor.getBlue(), 255)); // Full opacity for border
-            graphics.setStroke(new BasicStroke(2));
-            graphics.draw(tilePoly);
-        }
-
-        // Highlight the hull
-        Shape hull = npc.getConvexHull();
-        if (hull != null) {
-            // Draw hull outline with soft red
-            graphics.setColor(new Color(255, 0, 0, 200)); // Slightly more opaque red for hull
-            graphics.setStroke(new BasicStroke(2));
-            graphics.draw(hull);
+    private void appendNpcHulls(TrackedNpcSet npcs) {
+        int cameraVersion = footprintCache.getCameraVersion();
+        for (int i = 0; i < npcs.size(); i++) {
+            // Reused while the NPC keeps its position and pose
+            Shape hull = hullCache.getConvexHull(npcs.get(i), cameraVersion);
+            if (hull != null) {
+                addHulls.append(hull, false);
+            }
         }
     }
 }
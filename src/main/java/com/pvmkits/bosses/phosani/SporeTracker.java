@@ -0,0 +1,221 @@
+package com.pvmkits.bosses.phosani;
+
+import com.pvmkits.core.HazardTiles;
+import com.pvmkits.core.PackedTileMap;
+import com.pvmkits.core.TickTrace;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Live spores with the tick each one spawned. Despawn events remove spores;
+ * a spore whose despawn was missed (region reload, instance teleport) is
+ * dropped once it has outlived the expected lifetime by a generous margin.
+ * Every spore gets the same fallback expiry, so spawn order is expiry order:
+ * spores are kept in a FIFO ring and expiring them only looks at the oldest,
+ * O(1) per tick plus one step per expired spore.
+ *
+ * Spores are indexed by packed tile for spawn and despawn lookups, and the
+ * tiles of their danger zones are counted in {@link HazardTiles}, so checking
+ * whether a tile is inside any zone is one lookup. The tracker holds at most
+ * {@code capacity} spores; a spawn beyond that is traced as
+ * {@link TickTrace.Kind#SPORE_OVERFLOW} and not tracked, rather than dropping
+ * a live zone.
+ */
+class SporeTracker {
+
+    private static final long NO_KEY = Long.MIN_VALUE;
+
+    private final int capacity;
+    private final int lifetimeTicks;
+    private final int expiryTicks;
+    private final int zoneRadius;
+    private final TickTrace tickTrace;
+
+    // FIFO ring of spores by spawn tick; despawned spores leave a NO_KEY hole
+    private final long[] ringKeys;
+    private final int[] ringSpawnTicks;
+    private final WorldPoint[] ringLocations;
+    private int head;
+    private int tail;
+    private int ringUsed;
+    private int size;
+
+    // Spore tile -> ring position
+    private final PackedTileMap positions;
+    // Tiles inside any spore's danger zone
+    private final HazardTiles dangerTiles;
+
+    /**
+     * @param lifetimeTicks ticks a spore is expected to stay, shown as its
+     *                      countdown
+     * @param expiryMarginTicks ticks past the expected lifetime before a
+     *                          spore whose despawn never arrived is dropped
+     * @param zoneRadius tiles each spore threatens around itself, 1 for 3x3
+     */
+    SporeTracker(int capacity, int lifetimeTicks, int expiryMarginTicks, int zoneRadius, TickTrace tickTrace) {
+        this.capacity = capacity;
+        this.lifetimeTicks = lifetimeTicks;
+        this.expiryTicks = lifetimeTicks + expiryMarginTicks;
+        this.zoneRadius = zoneRadius;
+        this.tickTrace = tickTrace;
+        ringKeys = new long[capacity];
+        ringSpawnTicks = new int[capacity];
+        ringLocations = new WorldPoint[capacity];
+        positions = new PackedTileMap(capacity);
+
+        int zoneWidth = zoneRadius * 2 + 1;
+        dangerTiles = new HazardTiles(capacity * zoneWidth * zoneWidth);
+    }
+
+    /**
+     * Record a spore spawning. A spore already on the tile is replaced, so its
+     * lifetime starts over. Returns true if the tracked spores changed.
+     */
+    boolean spawn(WorldPoint location, int tick) {
+        long key = PackedTileMap.pack(location.getX(), location.getY(), location.getPlane());
+        int position = positions.get(key);
+        if (position != PackedTileMap.NO_VALUE) {
+            if (ringSpawnTicks[position] == tick) {
+                return false;
+            }
+            removeAt(position);
+            compact();
+        }
+
+        if (size == capacity) {
+            // Live zones are never dropped to make room
+            tickTrace.record(TickTrace.Kind.SPORE_OVERFLOW, -1, size);
+            return false;
+        }
+        if (ringUsed == capacity) {
+            repack();
+        }
+
+        ringKeys[tail] = key;
+        ringSpawnTicks[tail] = tick;
+        ringLocations[tail] = location;
+        positions.put(key, tail);
+        dangerTiles.add(location.getX(), location.getY(), location.getPlane(), zoneRadius);
+        tail = next(tail);
+        ringUsed++;
+        size++;
+        return true;
+    }
+
+    /**
+     * Record a spore despawning. Returns true if it was tracked.
+     */
+    boolean despawn(WorldPoint location) {
+        int position = positions.get(PackedTileMap.pack(location.getX(), location.getY(), location.getPlane()));
+        if (position == PackedTileMap.NO_VALUE) {
+            return false;
+        }
+
+        removeAt(position);
+        compact();
+        return true;
+    }
+
+    /**
+     * Drop every spore that outlived its lifetime and the expiry margin by the
+     * given tick, as its despawn was missed. Returns true if any was dropped.
+     */
+    boolean expire(int tick) {
+        boolean expired = false;
+        compact();
+        while (ringUsed > 0 && tick - ringSpawnTicks[head] >= expiryTicks) {
+            removeAt(head);
+            compact();
+            expired = true;
+        }
+        return expired;
+    }
+
+    /**
+     * True if the tile is inside the danger zone of any tracked spore
+     */
+    boolean isDangerous(int x, int y, int plane) {
+        return dangerTiles.isDangerous(x, y, plane);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        positions.clear();
+        dangerTiles.clear();
+        Arrays.fill(ringKeys, NO_KEY);
+        Arrays.fill(ringLocations, null);
+        head = 0;
+        tail = 0;
+        ringUsed = 0;
+        size = 0;
+    }
+
+    /**
+     * Create the snapshot following the given one with the tracked spores,
+     * oldest first
+     */
+    SporeZoneSnapshot snapshot(SporeZoneSnapshot previous) {
+        List<WorldPoint> locations = new ArrayList<>(size);
+        int[] expiryTicks = new int[size];
+        for (int i = 0, position = head; i < ringUsed; i++, position = next(position)) {
+            if (ringKeys[position] != NO_KEY) {
+                expiryTicks[locations.size()] = ringSpawnTicks[position] + lifetimeTicks;
+                locations.add(ringLocations[position]);
+            }
+        }
+        return previous.next(locations, expiryTicks);
+    }
+
+    private int next(int position) {
+        return position + 1 == capacity ? 0 : position + 1;
+    }
+
+    // Leave a hole in the ring and drop the tile from the indexes
+    private void removeAt(int position) {
+        WorldPoint location = ringLocations[position];
+        positions.remove(ringKeys[position]);
+        dangerTiles.remove(location.getX(), location.getY(), location.getPlane(), zoneRadius);
+        ringKeys[position] = NO_KEY;
+        ringLocations[position] = null;
+        size--;
+    }
+
+    // Advance the head past holes left by despawns
+    private void compact() {
+        while (ringUsed > 0 && ringKeys[head] == NO_KEY) {
+            head = next(head);
+            ringUsed--;
+        }
+    }
+
+    // Close the holes despawns left between head and tail, keeping the order
+    private void repack() {
+        int write = head;
+        for (int i = 0, read = head; i < ringUsed; i++, read = next(read)) {
+            if (ringKeys[read] == NO_KEY) {
+                continue;
+            }
+            if (read != write) {
+                ringKeys[write] = ringKeys[read];
+                ringSpawnTicks[write] = ringSpawnTicks[read];
+                ringLocations[write] = ringLocations[read];
+                ringKeys[read] = NO_KEY;
+                ringLocations[read] = null;
+                positions.put(ringKeys[write], write);
+            }
+            write = next(write);
+        }
+        tail = write;
+        ringUsed = size;
+    }
+}
@@ -0,0 +1,55 @@
+package com.pvmkits.bosses.phosani;
+
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable view of the active spore locations and the tick each one
+ * expires. A new snapshot with a higher version is published whenever a spore
+ * spawns, despawns or expires, so readers can tell whether anything changed
+ * by comparing versions.
+ */
+public final class SporeZoneSnapshot {
+
+    public static final SporeZoneSnapshot EMPTY = new SporeZoneSnapshot(0, Collections.emptyList(), new int[0]);
+
+    private final int version;
+    private final List<WorldPoint> locations;
+    private final int[] expiryTicks;
+
+    private SporeZoneSnapshot(int version, List<WorldPoint> locations, int[] expiryTicks) {
+        this.version = version;
+        this.locations = locations;
+        this.expiryTicks = expiryTicks;
+    }
+
+    /**
+     * Create the snapshot following this one with the given spore locations
+     * and their expiry ticks. Takes ownership of both.
+     */
+    SporeZoneSnapshot next(List<WorldPoint> locations, int[] expiryTicks) {
+        return new SporeZoneSnapshot(version + 1, Collections.unmodifiableList(locations), expiryTicks);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public List<WorldPoint> getLocations() {
+        return locations;
+    }
+
+    /**
+     * Get the tick the spore at the given index of {@link #getLocations()}
+     * is expected to disappear on
+     */
+    public int getExpiryTick(int i) {
+        return expiryTicks[i];
+    }
+
+    public boolean isEmpty() {
+        return locations.isEmpty();
+    }
+}
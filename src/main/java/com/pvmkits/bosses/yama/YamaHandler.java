@@ -1,6 +1,11 @@
 package com.pvmkits.bosses.yama;
 
+import com.pvmkits.core.AttackCycleEngine;
+import com.pvmkits.core.BossDefinition;
+import com.pvmkits.core.BossFrameState;
 import com.pvmkits.core.BossHandler;
+import com.pvmkits.core.SceneSnapshot;
+import com.pvmkits.core.TickTrace;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.*;
 import net.runelite.api.events.AnimationChanged;
@@ -9,152 +14,82 @@ import net.runelite.api.events.GameTick;
 
 import javax.inject.Inject;
 import java.awt.Color;
-import java.util.*;
+import java.util.List;
 
 @Slf4j
 public class YamaHandler implements BossHandler {
 
-    @Inject
-    private Client client;
-
-    // Track current Yama phases by NPC index
-    private Map<Integer, YamaPhase> yamaPhases = new HashMap<>();
-
-    // Yama animation IDs
-    private static final int ANIMATION_MELEE = 12146;
-    private static final int ANIMATION_ORB_ATTACK = 12146; // Same as melee
-    private static final int ANIMATION_MAGE = 12144;
-
-    // Yama graphic IDs
-    private static final int GRAPHIC_MAGE = 3246;
-    private static final int GRAPHIC_RANGE = 3243;
-    private static final int GRAPHIC_GLYPH_ATTACK = 3253;
+    private final Client client;
+    private final SceneSnapshot sceneSnapshot;
+    private final TickTrace tickTrace;
 
-    // Yama NPC ID
-    private static final int YAMA_ID = 14176;
+    // IDs, size and attack cycle, from yama.properties
+    private static final String DEFINITION_RESOURCE = "yama.properties";
 
-    // Attack cycle constants
-    private static final int ATTACK_CYCLE_TICKS = 8;
-    private static final int ENRAGE_ATTACK_CYCLE_TICKS = 7;
+    private static final YamaPhase[] PHASES = YamaPhase.values();
 
-    // Graphic for phase transition
-    private static final int GRAPHIC_PHASE_TRANSITION = 3276;
+    private final BossDefinition definition;
 
-    // Track last logged animation for each Yama to prevent duplicate logging
-    private Map<Integer, Integer> lastLoggedAnimations = new HashMap<>();
+    // Phase, attack timer, cooldown and enrage state per Yama
+    private final AttackCycleEngine attackCycle;
 
-    // Track attack timers for each Yama (NPC index -> ticks until next attack)
-    private Map<Integer, Integer> yamaAttackTimers = new HashMap<>();
+    // State published for the overlay once per tick, rebuilt in frameBuilder
+    private final BossFrameState.Builder frameBuilder = new BossFrameState.Builder();
+    private volatile BossFrameState frameState = BossFrameState.EMPTY;
 
-    // Track phase transition graphic occurrences for each Yama (NPC index -> count)
-    private Map<Integer, Integer> phaseTransitionCounts = new HashMap<>();
-
-    // Track which timers were just initialized this tick to prevent immediate
-    // countdown
-    private Set<Integer> newlyInitializedTimers = new HashSet<>();
+    @Inject
+    public YamaHandler(Client client, SceneSnapshot sceneSnapshot, TickTrace tickTrace) {
+        this.client = client;
+        this.sceneSnapshot = sceneSnapshot;
+        this.tickTrace = tickTrace;
+        this.definition = BossDefinition.load(YamaHandler.class, DEFINITION_RESOURCE, YamaPhase.class);
+        this.attackCycle = new AttackCycleEngine(definition.getAttackCycle(), tickTrace);
+    }
 
-    // Track attack cooldowns to prevent multiple timer resets from duplicate
-    // animations
-    // Maps NPC index to the tick when the cooldown expires
-    private Map<Integer, Integer> attackCooldowns = new HashMap<>();
+    @Override
+    public String getBossName() {
+        return definition.getName();
+    }
 
-    // Cooldown duration in ticks after detecting an attack
-    private static final int ATTACK_COOLDOWN_TICKS = 6;
+    @Override
+    public int[] getNpcIds() {
+        return definition.getNpcIds();
+    }
 
     @Override
-    public String getBossName() {
-        return "Yama";
+    public int[] getAnimationIds() {
+        return definition.getAnimationIds();
     }
 
     @Override
-    public boolean isInBossArea(Client client) {
-        // Check if any Yama NPCs are present
-        for (NPC npc : client.getTopLevelWorldView().npcs()) {
-            if (npc != null && npc.getId() == YAMA_ID) {
-                log.info(
-                        "YamaHandler.isInBossArea: Found Yama NPC with ID " + YAMA_ID + " and index " + npc.getIndex());
-                return true;
-            }
-        }
-        log.debug("YamaHandler.isInBossArea: No Yama NPCs found, checking all NPCs...");
-
-        // Debug: Log all NPC IDs to help identify if Yama ID is wrong
-        int npcCount = 0;
-        for (NPC npc : client.getTopLevelWorldView().npcs()) {
-            if (npc != null) {
-                npcCount++;
-                if (npcCount <= 5) { // Only log first 5 NPCs to avoid spam
-                    log.debug("YamaHandler.isInBossArea: Found NPC ID " + npc.getId() + " at index " + npc.getIndex());
-                }
-            }
-        }
-        log.debug("YamaHandler.isInBossArea: Total NPCs found: " + npcCount);
+    public int[] getGraphicIds() {
+        return definition.getGraphicIds();
+    }
 
-        return false;
+    public BossDefinition getDefinition() {
+        return definition;
     }
 
     @Override
     public void onAnimationChanged(AnimationChanged event) {
-        // Animation detection moved to onGameTick to match working example
+        // The plugin only forwards animations from Yama listed in getAnimationIds(),
+        // so attacks are picked up the tick they start
+        NPC npc = (NPC) event.getActor();
+        attackCycle.onAnimation(attackCycle.track(npc.getIndex()), npc.getAnimation(), client.getTickCount());
     }
 
     @Override
     @SuppressWarnings("deprecation") // getGraphic() is deprecated but still functional
     public void onGraphicChanged(GraphicChanged event) {
-        Actor actor = event.getActor();
-
-        if (!(actor instanceof NPC)) {
-            return;
-        }
-
-        NPC npc = (NPC) actor;
-        if (npc.getId() != YAMA_ID) {
-            return;
-        }
-
+        // The plugin only forwards graphics from Yama listed in getGraphicIds()
+        NPC npc = (NPC) event.getActor();
         int index = npc.getIndex();
         int graphicId = npc.getGraphic();
 
-        // Log every graphic change event, including when graphics are cleared
-        log.info("Yama (index " + index + ") attack graphic: graphicId=" + graphicId);
+        // Trace every graphic change event that reaches the handler
+        tickTrace.record(TickTrace.Kind.GRAPHIC, index, graphicId);
 
-        // Track phase transition graphics (attack graphic 3276)
-        if (graphicId == GRAPHIC_PHASE_TRANSITION) {
-            int currentCount = phaseTransitionCounts.getOrDefault(index, 0);
-            phaseTransitionCounts.put(index, currentCount + 1);
-            log.info("Yama (index " + index + ") phase transition detected. Count: " + (currentCount + 1) +
-                    (currentCount + 1 >= 2 ? " - ENRAGE PHASE ACTIVATED" : ""));
-        }
-
-        // Reset timer when graphic-based attacks are detected, but only if not in
-        // cooldown
-        if (isAttackGraphic(graphicId)) {
-            int currentTick = client.getTickCount();
-            Integer cooldownExpiry = attackCooldowns.get(index);
-
-            // Only reset timer if we're not in cooldown or cooldown has expired
-            if (cooldownExpiry == null || currentTick >= cooldownExpiry) {
-                int attackTicks = getAttackCycleTicks(index);
-                yamaAttackTimers.put(index, attackTicks);
-                newlyInitializedTimers.add(index);
-                // Set cooldown to expire in 6 ticks
-                attackCooldowns.put(index, currentTick + ATTACK_COOLDOWN_TICKS);
-                log.info("Yama (index " + index + ") graphic attack detected, timer reset to " + attackTicks +
-                        " (cooldown until tick " + (currentTick + ATTACK_COOLDOWN_TICKS) + ")" +
-                        (isYamaInEnragePhase(index) ? " [ENRAGE PHASE]" : ""));
-            } else {
-                log.info(
-                        "Yama (index " + index + ") graphic attack ignored - in cooldown until tick " + cooldownExpiry);
-            }
-        }
-
-        if (graphicId == GRAPHIC_MAGE) {
-            yamaPhases.put(index, YamaPhase.MAGE);
-        } else if (graphicId == GRAPHIC_RANGE) {
-            yamaPhases.put(index, YamaPhase.RANGE);
-        } else if (graphicId == GRAPHIC_GLYPH_ATTACK) {
-            yamaPhases.put(index, YamaPhase.FIRE_SPECIAL); // Assuming glyph is a fire special attack
-        }
+        attackCycle.onGraphic(attackCycle.track(index), graphicId, client.getTickCount());
     }
 
     @Override
@@ -163,185 +98,71 @@ public class YamaHandler implements BossHandler {
             return;
         }
 
-        log.debug("YamaHandler.onGameTick: Called, GameState=" + client.getGameState());
-
-        boolean yamaPresent = false;
-        // Track all visible Yamas in the scene
-        for (NPC npc : client.getTopLevelWorldView().npcs()) {
-            if (npc != null && npc.getId() == YAMA_ID) {
-                yamaPresent = true;
-                int index = npc.getIndex();
-                log.debug("YamaHandler.onGameTick: Processing Yama with index " + index);
-
-                // Log animation IDs for Yama only when they change
-                int animationId = npc.getAnimation();
-                if (animationId != -1) {
-                    Integer lastLogged = lastLoggedAnimations.get(index);
-                    if (lastLogged == null || lastLogged != animationId) {
-                        log.info("Yama (index " + index + ") animation: animationId=" + animationId);
-                        lastLoggedAnimations.put(index, animationId);
-                    }
-
-                    // Reset timer to appropriate ticks when Yama attacks, but only if not in
-                    // cooldown
-                    // Check for attack animation regardless of whether it changed
-                    if (isAttackAnimation(animationId)) {
-                        int currentTick = client.getTickCount();
-                        Integer cooldownExpiry = attackCooldowns.get(index);
-
-                        // Only reset timer if we're not in cooldown or cooldown has expired
-                        if (cooldownExpiry == null || currentTick >= cooldownExpiry) {
-                            int attackTicks = getAttackCycleTicks(index);
-                            yamaAttackTimers.put(index, attackTicks);
-                            newlyInitializedTimers.add(index);
-                            // Set cooldown to expire in 6 ticks
-                            attackCooldowns.put(index, currentTick + ATTACK_COOLDOWN_TICKS);
-                            log.info("Yama (index " + index + ") attack detected, timer reset to " + attackTicks +
-                                    " (cooldown until tick " + (currentTick + ATTACK_COOLDOWN_TICKS) + ")" +
-                                    (isYamaInEnragePhase(index) ? " [ENRAGE PHASE]" : ""));
-                        } else {
-                            log.debug("Yama (index " + index + ") attack ignored - in cooldown until tick "
-                                    + cooldownExpiry);
-                        }
-                    }
-
-                    // Update phase based on animation if available (handle melee attacks here)
-                    if (animationId == ANIMATION_MELEE) {
-                        yamaPhases.put(index, YamaPhase.MELEE);
-                    }
-                }
-
-                // Initialize with UNKNOWN if we haven't seen this Yama before
-                if (!yamaPhases.containsKey(index)) {
-                    yamaPhases.put(index, YamaPhase.UNKNOWN);
-                    log.info("YamaHandler.onGameTick: Initialized phase to UNKNOWN for Yama index " + index);
-                }
-
-                // Initialize timer if not present (start with appropriate timing)
-                if (!yamaAttackTimers.containsKey(index)) {
-                    int attackTicks = getAttackCycleTicks(index);
-                    yamaAttackTimers.put(index, attackTicks);
-                    newlyInitializedTimers.add(index);
-                    log.info("Yama (index " + index + ") timer initialized to " + attackTicks +
-                            (isYamaInEnragePhase(index) ? " [ENRAGE PHASE]" : ""));
-                } else {
-                    // Debug: Log current timer state every 10 ticks to avoid spam
-                    if (client.getTickCount() % 10 == 0) {
-                        int currentTimer = yamaAttackTimers.get(index);
-                        log.debug("Yama (index " + index + ") current timer value: " + currentTimer);
-                    }
-                }
-            }
-        }
+        List<NPC> yamas = sceneSnapshot.getNpcs(SceneSnapshot.Group.BOSS);
 
         // If no Yama exists, clear all highlights and phases
-        if (!yamaPresent) {
-            if (!yamaPhases.isEmpty() || !yamaAttackTimers.isEmpty()) {
+        if (yamas.isEmpty()) {
+            if (!attackCycle.isEmpty()) {
                 log.info("YamaHandler.onGameTick: No Yama present, clearing all data");
             }
-            yamaPhases.clear();
-            yamaAttackTimers.clear();
-            phaseTransitionCounts.clear();
-            attackCooldowns.clear();
+            attackCycle.clear();
+            frameState = BossFrameState.EMPTY;
             return;
         }
 
-        // Update attack timers for all Yamas
-        log.debug("YamaHandler.onGameTick: Updating timers for " + yamaAttackTimers.size() + " Yamas");
-        for (Map.Entry<Integer, Integer> entry : yamaAttackTimers.entrySet()) {
-            int yamaIndex = entry.getKey();
-            int currentTicks = entry.getValue();
-
-            // Skip countdown for newly initialized timers this tick
-            if (newlyInitializedTimers.contains(yamaIndex)) {
-                log.debug("Yama (index " + yamaIndex + ") timer skip countdown (newly initialized): " + currentTicks);
-                continue;
-            }
+        tickTrace.record(TickTrace.Kind.TICK, -1, yamas.size());
 
-            // Only decrement if the timer is greater than 1
-            if (currentTicks > 1) {
-                // Countdown the timer
-                int newTicks = currentTicks - 1;
-                yamaAttackTimers.put(yamaIndex, newTicks);
-                log.debug("Yama (index " + yamaIndex + ") timer countdown: " + currentTicks + " -> " + newTicks);
-
-            } else if (currentTicks == 1) {
-                // Timer at 1, next tick should be an attack
-                log.debug("Yama (index " + yamaIndex + ") timer at 1, waiting for attack");
-                // Keep timer at 1 until attack is detected
-            } else if (currentTicks <= 0) {
-                // Timer went below 1, reset it
-                int attackTicks = getAttackCycleTicks(yamaIndex);
-                yamaAttackTimers.put(yamaIndex, attackTicks);
-                log.info("Yama (index " + yamaIndex + ") timer reset from " + currentTicks + " to " + attackTicks);
-            }
+        // Start timers for Yamas that have not attacked yet; attacks themselves
+        // arrive through onAnimationChanged and onGraphicChanged
+        int currentTick = client.getTickCount();
+        for (int i = 0; i < yamas.size(); i++) {
+            attackCycle.initTimer(attackCycle.track(yamas.get(i).getIndex()), currentTick);
         }
 
-        // Clear the newly initialized timers set for next tick
-        if (!newlyInitializedTimers.isEmpty()) {
-            log.debug("YamaHandler.onGameTick: Clearing newly initialized timers: " + newlyInitializedTimers);
-        }
-        newlyInitializedTimers.clear();
-    }
+        // Update attack timers for all Yamas
+        attackCycle.tick(currentTick);
 
-    @Override
-    public Actor getBossActor(Client client) {
-        for (NPC npc : client.getTopLevelWorldView().npcs()) {
-            if (npc != null && npc.getId() == YAMA_ID) {
-                return npc;
-            }
+        // Publish this tick's state for the overlay in a single volatile write
+        frameBuilder.begin(currentTick);
+        for (int i = 0; i < yamas.size(); i++) {
+            NPC npc = yamas.get(i);
+            int slot = attackCycle.track(npc.getIndex());
+            int phase = attackCycle.getSlotPhase(slot);
+            frameBuilder.add(npc, phase, phase, attackCycle.getSlotAttackTimer(slot), 0);
         }
-        return null;
+        frameState = frameBuilder.build();
     }
 
     @Override
-    public void reset() {
-        yamaPhases.clear();
-        yamaAttackTimers.clear();
-        phaseTransitionCounts.clear();
-        attackCooldowns.clear();
-        lastLoggedAnimations.clear();
-        newlyInitializedTimers.clear();
+    public BossFrameState getFrameState() {
+        return frameState;
     }
 
-    // Helper methods
-    private boolean isAttackAnimation(int animationId) {
-        return animationId == ANIMATION_MELEE ||
-                animationId == ANIMATION_ORB_ATTACK ||
-                animationId == ANIMATION_MAGE;
+    @Override
+    public Actor getBossActor(Client client) {
+        return sceneSnapshot.getFirstNpc(SceneSnapshot.Group.BOSS);
     }
 
-    private boolean isAttackGraphic(int graphicId) {
-        return graphicId == GRAPHIC_MAGE ||
-                graphicId == GRAPHIC_RANGE ||
-                graphicId == GRAPHIC_GLYPH_ATTACK;
+    @Override
+    public void reset() {
+        attackCycle.clear();
+        frameState = BossFrameState.EMPTY;
     }
 
     public boolean isYamaInEnragePhase(int npcIndex) {
-        Integer transitionCount = phaseTransitionCounts.get(npcIndex);
-        return transitionCount != null && transitionCount >= 2;
-    }
-
-    private int getAttackCycleTicks(int npcIndex) {
-        return isYamaInEnragePhase(npcIndex) ? ENRAGE_ATTACK_CYCLE_TICKS : ATTACK_CYCLE_TICKS;
+        return attackCycle.isEnraged(npcIndex);
     }
 
     public YamaPhase getYamaPhase(int npcIndex) {
-        return yamaPhases.getOrDefault(npcIndex, YamaPhase.UNKNOWN);
+        return PHASES[attackCycle.getPhase(npcIndex)];
     }
 
     public int getYamaAttackTimer(int npcIndex) {
-        return yamaAttackTimers.getOrDefault(npcIndex, ATTACK_CYCLE_TICKS);
+        return attackCycle.getAttackTimer(npcIndex);
     }
 
     public List<NPC> getYamaNpcs() {
-        List<NPC> yamas = new ArrayList<>();
-        for (NPC npc : client.getTopLevelWorldView().npcs()) {
-            if (npc != null && npc.getId() == YAMA_ID) {
-                yamas.add(npc);
-            }
-        }
-        return yamas;
+        return sceneSnapshot.getNpcs(SceneSnapshot.Group.BOSS);
     }
 
     // Yama combat phases
@@ -1,10 +1,17 @@
 package com.pvmkits.bosses.yama;
 
-import com.pvmkits.PvmKitsConfig;
 import com.pvmkits.PvmKitsPlugin;
+import com.pvmkits.PvmKitsSettings;
+import com.pvmkits.core.BossFrameState;
+import com.pvmkits.core.FootprintCache;
+import com.pvmkits.core.LatencyHistogram;
+import com.pvmkits.core.PerformanceMonitor;
+import com.pvmkits.core.RenderGovernor;
+import com.pvmkits.core.RetainedLayer;
+import com.pvmkits.core.TileProjectionMemo;
+import com.pvmkits.core.TimerGlyphCache;
 import net.runelite.api.Client;
 import net.runelite.api.NPC;
-import net.runelite.api.Perspective;
 import net.runelite.api.coords.LocalPoint;
 import net.runelite.client.ui.overlay.*;
 
@@ -15,15 +22,36 @@ public class YamaOverlay extends Overlay {
 
     private final Client client;
     private final PvmKitsPlugin plugin;
-    private final PvmKitsConfig config;
-    private static final int YAMA_SIZE = 5; // Yama is 5x5 tiles
-    private static final int YAMA_ID = 14176;
+    private final FootprintCache footprintCache;
+    private final TileProjectionMemo tileProjections;
+    private final PerformanceMonitor performanceMonitor;
+    private final LatencyHistogram renderLatency;
+
+    // Timer glyph color slots
+    private static final int TIMER_NORMAL = 0;
+    private static final int TIMER_WARNING = 1;
+
+    private static final YamaHandler.YamaPhase[] PHASES = YamaHandler.YamaPhase.values();
+
+    // Settings snapshot the render resources were built from, replaced on config change
+    private PvmKitsSettings settings;
+    private final TimerGlyphCache timerGlyphs = new TimerGlyphCache(2);
+
+    // Drops fills and per-frame reprojection when rendering runs over budget
+    private final RenderGovernor renderGovernor = new RenderGovernor("Yama overlay");
+
+    // Last drawn frame, reused while nothing moved when retained overlays are on
+    private final RetainedLayer retainedLayer = new RetainedLayer();
 
     @Inject
-    public YamaOverlay(Client client, PvmKitsPlugin plugin, PvmKitsConfig config) {
+    public YamaOverlay(Client client, PvmKitsPlugin plugin, FootprintCache footprintCache,
+            TileProjectionMemo tileProjections, PerformanceMonitor performanceMonitor) {
         this.client = client;
         this.plugin = plugin;
-        this.config = config;
+        this.footprintCache = footprintCache;
+        this.tileProjections = tileProjections;
+        this.performanceMonitor = performanceMonitor;
+        this.renderLatency = performanceMonitor.histogram("Yama overlay");
         setPosition(OverlayPosition.DYNAMIC);
         setLayer(OverlayLayer.ABOVE_SCENE);
     }
@@ -31,150 +59,137 @@ public class YamaOverlay extends Overlay {
     @Override
     public Dimension render(Graphics2D graphics) {
         // Only render if Yama highlighting is enabled
-        if (!config.highlightYama() && !config.showAttackTimers()) {
+        PvmKitsSettings current = plugin.getSettings();
+        if (!current.isYamaEnabled()) {
             return null;
         }
 
-        // First, render existing Yama highlights
-        for (NPC npc : client.getTopLevelWorldView().npcs()) {
-            if (npc == null || npc.getId() != YAMA_ID) {
-                continue;
+        // Only Yama's own NPCs are bucketed while Yama is the active boss
+        YamaHandler yamaHandler = plugin.getYamaHandler();
+        if (yamaHandler == null || plugin.getActiveBossHandler() != yamaHandler) {
+            return null;
+        }
+
+        // Only frames that draw something are timed
+        long start = performanceMonitor.start();
+        long frameStart = renderGovernor.beginFrame();
+
+        if (current != settings) {
+            applySettings(current);
+        }
+        RenderGovernor.Quality quality = renderGovernor.getQuality();
+        if (renderGovernor.shouldReproject(client.getTickCount())) {
+            footprintCache.beginFrame(client);
+        }
+
+        // Render Yama highlights from the state published on the last tick,
+        // consistent for the whole frame
+        BossFrameState frame = yamaHandler.getFrameState();
+        int bossSize = yamaHandler.getDefinition().getSize();
+        if (!settings.isRetainedOverlays() && quality.redrawsEveryFrame()) {
+            // Drop the image kept while the governor was at TICK_ONLY
+            retainedLayer.release();
+            renderBosses(graphics, frame, bossSize, quality);
+        } else {
+            // Only redrawn when the tick, the camera or a Yama position changed,
+            // or at TICK_ONLY quality when the tick changed
+            long signature = quality.redrawsEveryFrame() ? contentSignature(frame, quality)
+                    : RetainedLayer.mix(RetainedLayer.EMPTY_SIGNATURE, client.getTickCount());
+            Graphics2D layer = retainedLayer.redraw(graphics, client.getCanvasWidth(), client.getCanvasHeight(),
+                    signature);
+            if (layer != null) {
+                renderBosses(layer, frame, bossSize, quality);
+                layer.dispose();
             }
+            retainedLayer.draw(graphics);
+        }
 
-            // Get the phase color for this Yama
-            YamaHandler.YamaPhase phase = plugin.getYamaHandler().getYamaPhase(npc.getIndex());
-            Color tileColor = phase.getColor();
+        renderGovernor.endFrame(frameStart);
+        performanceMonitor.stop(renderLatency, start);
+        return null;
+    }
 
+    private void renderBosses(Graphics2D graphics, BossFrameState frame, int bossSize,
+            RenderGovernor.Quality quality) {
+        for (int i = 0; i < frame.size(); i++) {
             // Get base tile location of the NPC
-            LocalPoint basePoint = npc.getLocalLocation();
+            LocalPoint basePoint = frame.getNpc(i).getLocalLocation();
             if (basePoint == null) {
                 continue;
             }
 
             // Render attack style overlay if enabled
-            if (config.highlightYama()) {
-                renderAttackStyleOverlay(graphics, npc, tileColor);
+            if (settings.isHighlightYama()) {
+                renderAttackStyleOverlay(graphics, basePoint, bossSize, PHASES[frame.getPhase(i)], quality);
             }
 
             // Render attack timer if enabled
-            if (config.showAttackTimers()) {
-                renderAttackTimer(graphics, npc);
+            if (settings.isShowYamaAttackTimers()) {
+                renderAttackTimer(graphics, basePoint, frame.getAttackTimer(i));
             }
         }
+    }
 
-        return null;
+    // Everything that moves or changes a shape this overlay draws
+    private long contentSignature(BossFrameState frame, RenderGovernor.Quality quality) {
+        long signature = RetainedLayer.EMPTY_SIGNATURE;
+        signature = RetainedLayer.mix(signature, frame.getTick());
+        signature = RetainedLayer.mix(signature, footprintCache.getCameraVersion());
+        signature = RetainedLayer.mix(signature, quality.ordinal());
+        for (int i = 0; i < frame.size(); i++) {
+            NPC npc = frame.getNpc(i);
+            LocalPoint location = npc.getLocalLocation();
+            signature = RetainedLayer.mix(signature, location == null ? -1 : location.getX());
+            signature = RetainedLayer.mix(signature, location == null ? -1 : location.getY());
+        }
+        return signature;
     }
 
-    @SuppressWarnings("deprecation") // Using deprecated LocalPoint constructor to match working example
-    private void renderAttackStyleOverlay(Graphics2D graphics, NPC npc, Color tileColor) {
-        LocalPoint basePoint = npc.getLocalLocation();
-        if (basePoint == null) {
+    private void renderAttackStyleOverlay(Graphics2D graphics, LocalPoint basePoint, int size,
+            YamaHandler.YamaPhase phase, RenderGovernor.Quality quality) {
+        // Consolidated outline of the boss footprint, reused while nothing moves
+        Polygon borderPoly = footprintCache.getFootprint(client, basePoint, size);
+        if (borderPoly == null) {
             return;
         }
 
-        // Calculate the southwest corner of the 5x5 area
-        int swX = basePoint.getX() - (Perspective.LOCAL_TILE_SIZE * (YAMA_SIZE - 1) / 2);
-        int swY = basePoint.getY() - (Perspective.LOCAL_TILE_SIZE * (YAMA_SIZE - 1) / 2);
-
-        // Calculate the northeast corner of the 5x5 area
-        int neX = swX + ((YAMA_SIZE - 1) * Perspective.LOCAL_TILE_SIZE);
-        int neY = swY + ((YAMA_SIZE - 1) * Perspective.LOCAL_TILE_SIZE);
-
-        // Create LocalPoints for the four corners of the 5x5 area
-        LocalPoint swPoint = new LocalPoint(swX, swY);
-        LocalPoint sePoint = new LocalPoint(neX, swY);
-        LocalPoint nePoint = new LocalPoint(neX, neY);
-        LocalPoint nwPoint = new LocalPoint(swX, neY);
-
-        // Get the polygons for each corner tile
-        Polygon swPoly = Perspective.getCanvasTilePoly(client, swPoint);
-        Polygon sePoly = Perspective.getCanvasTilePoly(client, sePoint);
-        Polygon nePoly = Perspective.getCanvasTilePoly(client, nePoint);
-        Polygon nwPoly = Perspective.getCanvasTilePoly(client, nwPoint);
-
-        if (swPoly == null || sePoly == null || nePoly == null || nwPoly == null) {
-            return;
+        // Fill the entire footprint with semi-transparent color
+        if (quality.drawsPhaseFills()) {
+            graphics.setColor(settings.getYamaPhaseFillColor(phase));
+            graphics.fill(borderPoly);
         }
 
-        // Create a consolidated area polygon
-        Polygon borderPoly = new Polygon();
-
-        // Add the outer points of the 5x5 area to create the border
-        // South edge (SW to SE)
-        addPointsToPolygon(borderPoly, swPoly, 0, 1);
-        // East edge (SE to NE)
-        addPointsToPolygon(borderPoly, sePoly, 1, 2);
-        // North edge (NE to NW)
-        addPointsToPolygon(borderPoly, nePoly, 2, 3);
-        // West edge (NW to SW)
-        addPointsToPolygon(borderPoly, nwPoly, 3, 0);
-
-        // Fill entire 5x5 area with semi-transparent color
-        graphics.setColor(new Color(tileColor.getRed(), tileColor.getGreen(),
-                tileColor.getBlue(), config.boulderTransparency()));
-        graphics.fill(borderPoly);
-
-        // Draw just the outer border with solid color
-        graphics.setColor(tileColor);
+        // Draw just the outer border with solid color, kept at every quality level
+        graphics.setColor(phase.getColor());
         graphics.draw(borderPoly);
     }
 
-    private void renderAttackTimer(Graphics2D graphics, NPC npc) {
-        // Display attack timer over the center of Yama
-        int npcIndex = npc.getIndex();
-        int attackTimer = plugin.getYamaHandler().getYamaAttackTimer(npcIndex);
-
-        // Only render if timer is valid and greater than 0
+    private void renderAttackTimer(Graphics2D graphics, LocalPoint center, int attackTimer) {
+        // Display attack timer over the center of Yama, only if valid and greater than 0
         if (attackTimer > 0) {
-            // Get center point of the NPC for text positioning
-            LocalPoint center = npc.getLocalLocation();
-            if (center != null) {
-                net.runelite.api.Point textPoint = Perspective.localToCanvas(client, center, 0);
-                if (textPoint != null) {
-                    // Set text properties
-                    String timerText = String.valueOf(attackTimer);
-                    java.awt.Font font = new java.awt.Font("Arial", java.awt.Font.BOLD, config.timerTextSize());
-                    graphics.setFont(font);
-
-                    java.awt.FontMetrics metrics = graphics.getFontMetrics();
-                    int textWidth = metrics.stringWidth(timerText);
-                    int textHeight = metrics.getHeight();
-                    int textX = textPoint.getX() - (textWidth / 2);
-                    int textY = textPoint.getY() + (textHeight / 4); // Center vertically
-
-                    // Draw outline for visibility
-                    graphics.setColor(Color.BLACK);
-                    graphics.drawString(timerText, textX - 2, textY - 2);
-                    graphics.drawString(timerText, textX + 2, textY - 2);
-                    graphics.drawString(timerText, textX - 2, textY + 2);
-                    graphics.drawString(timerText, textX + 2, textY + 2);
-                    graphics.drawString(timerText, textX - 2, textY);
-                    graphics.drawString(timerText, textX + 2, textY);
-                    graphics.drawString(timerText, textX, textY - 2);
-                    graphics.drawString(timerText, textX, textY + 2);
-
-                    // Draw main text - use config colors
-                    Color textColor;
-                    if (attackTimer == 1) {
-                        textColor = config.warningColor(); // Bright red for '1'
-                    } else {
-                        textColor = config.normalTimerColor(); // Bright teal for other numbers
-                    }
-                    graphics.setColor(textColor);
-                    graphics.drawString(timerText, textX, textY);
-                }
+            // Center of the base tile, usually already projected for the
+            // footprint this frame
+            Polygon baseTilePoly = tileProjections.getTilePoly(client, center);
+            if (baseTilePoly != null) {
+                Rectangle tileRect = baseTilePoly.getBounds();
+                // Bright red for '1', bright teal for other numbers
+                int colorIndex = attackTimer == 1 ? TIMER_WARNING : TIMER_NORMAL;
+                timerGlyphs.draw(graphics, attackTimer, colorIndex, tileRect.x + tileRect.width / 2,
+                        tileRect.y + tileRect.height / 2);
             }
         }
     }
 
-    // Helper method to add points from one polygon to another
-    private void addPointsToPolygon(Polygon targetPoly, Polygon sourcePoly, int startIdx, int endIdx) {
-        int sourcePoints = sourcePoly.npoints;
-        if (startIdx >= sourcePoints || endIdx >= sourcePoints) {
-            return;
+    private void applySettings(PvmKitsSettings settings) {
+        timerGlyphs.configure(settings.getYamaTimerFont(), settings.getYamaNormalTimerColor(),
+                settings.getYamaWarningColor());
+        renderGovernor.setBudgetMicros(settings.getOverlayFrameBudget());
+        if (settings.isRetainedOverlays()) {
+            retainedLayer.invalidate();
+        } else {
+            retainedLayer.release();
         }
-
-        targetPoly.addPoint(sourcePoly.xpoints[startIdx], sourcePoly.ypoints[startIdx]);
-        targetPoly.addPoint(sourcePoly.xpoints[endIdx], sourcePoly.ypoints[endIdx]);
+        this.settings = settings;
     }
+
 }
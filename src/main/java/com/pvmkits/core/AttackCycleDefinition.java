@@ -0,0 +1,197 @@
+package com.pvmkits.core;
+
+import java.util.Arrays;
+
+/**
+ * Describes a boss attack cycle: which animations and graphics count as an
+ * attack, which phase each of them implies, how many ticks pass between
+ * attacks and how enrage changes that. One definition drives one
+ * {@link AttackCycleEngine}.
+ */
+public final class AttackCycleDefinition {
+
+    public static final int NO_ENRAGE = -1;
+
+    private final String bossName;
+    private final int cycleTicks;
+    private final int cooldownTicks;
+    private final int defaultPhase;
+    private final int[] attackAnimationIds;
+    private final int[] attackGraphicIds;
+    private final int[] phaseAnimationIds;
+    private final int[] phaseByAnimation;
+    private final int[] phaseGraphicIds;
+    private final int[] phaseByGraphic;
+    private final int enrageGraphicId;
+    private final int enrageThreshold;
+    private final int enrageCycleTicks;
+
+    private AttackCycleDefinition(Builder builder) {
+        bossName = builder.bossName;
+        cycleTicks = builder.cycleTicks;
+        cooldownTicks = builder.cooldownTicks;
+        defaultPhase = builder.defaultPhase;
+        attackAnimationIds = builder.attackAnimationIds.clone();
+        attackGraphicIds = builder.attackGraphicIds.clone();
+        phaseAnimationIds = Arrays.copyOf(builder.phaseAnimationIds, builder.phaseAnimationCount);
+        phaseByAnimation = Arrays.copyOf(builder.phaseByAnimation, builder.phaseAnimationCount);
+        phaseGraphicIds = Arrays.copyOf(builder.phaseGraphicIds, builder.phaseGraphicCount);
+        phaseByGraphic = Arrays.copyOf(builder.phaseByGraphic, builder.phaseGraphicCount);
+        enrageGraphicId = builder.enrageGraphicId;
+        enrageThreshold = builder.enrageThreshold;
+        enrageCycleTicks = builder.enrageCycleTicks;
+    }
+
+    public static Builder builder(String bossName) {
+        return new Builder(bossName);
+    }
+
+    public String getBossName() {
+        return bossName;
+    }
+
+    public int getCycleTicks() {
+        return cycleTicks;
+    }
+
+    public int getCooldownTicks() {
+        return cooldownTicks;
+    }
+
+    public int getDefaultPhase() {
+        return defaultPhase;
+    }
+
+    public int getEnrageGraphicId() {
+        return enrageGraphicId;
+    }
+
+    public int getEnrageThreshold() {
+        return enrageThreshold;
+    }
+
+    public int getEnrageCycleTicks() {
+        return enrageCycleTicks;
+    }
+
+    public boolean isAttackAnimation(int animationId) {
+        return indexOf(attackAnimationIds, attackAnimationIds.length, animationId) >= 0;
+    }
+
+    public boolean isAttackGraphic(int graphicId) {
+        return indexOf(attackGraphicIds, attackGraphicIds.length, graphicId) >= 0;
+    }
+
+    /**
+     * Get the phase implied by an animation, or -1 if it implies none
+     */
+    public int getPhaseForAnimation(int animationId) {
+        int i = indexOf(phaseAnimationIds, phaseAnimationIds.length, animationId);
+        return i >= 0 ? phaseByAnimation[i] : -1;
+    }
+
+    /**
+     * Get the phase implied by a graphic, or -1 if it implies none
+     */
+    public int getPhaseForGraphic(int graphicId) {
+        int i = indexOf(phaseGraphicIds, phaseGraphicIds.length, graphicId);
+        return i >= 0 ? phaseByGraphic[i] : -1;
+    }
+
+    // The tables hold a handful of IDs, so a linear scan beats hashing
+    private static int indexOf(int[] ids, int length, int id) {
+        for (int i = 0; i < length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static final class Builder {
+        private final String bossName;
+        private int cycleTicks;
+        private int cooldownTicks;
+        private int defaultPhase;
+        private int[] attackAnimationIds = new int[0];
+        private int[] attackGraphicIds = new int[0];
+        private int[] phaseAnimationIds = new int[4];
+        private int[] phaseByAnimation = new int[4];
+        private int phaseAnimationCount;
+        private int[] phaseGraphicIds = new int[4];
+        private int[] phaseByGraphic = new int[4];
+        private int phaseGraphicCount;
+        private int enrageGraphicId = NO_ENRAGE;
+        private int enrageThreshold;
+        private int enrageCycleTicks;
+
+        private Builder(String bossName) {
+            this.bossName = bossName;
+        }
+
+        public Builder cycleTicks(int cycleTicks) {
+            this.cycleTicks = cycleTicks;
+            return this;
+        }
+
+        public Builder cooldownTicks(int cooldownTicks) {
+            this.cooldownTicks = cooldownTicks;
+            return this;
+        }
+
+        public Builder defaultPhase(int defaultPhase) {
+            this.defaultPhase = defaultPhase;
+            return this;
+        }
+
+        public Builder attackAnimations(int... animationIds) {
+            this.attackAnimationIds = animationIds;
+            return this;
+        }
+
+        public Builder attackGraphics(int... graphicIds) {
+            this.attackGraphicIds = graphicIds;
+            return this;
+        }
+
+        public Builder animationPhase(int animationId, int phase) {
+            if (phaseAnimationCount == phaseAnimationIds.length) {
+                phaseAnimationIds = Arrays.copyOf(phaseAnimationIds, phaseAnimationCount * 2);
+                phaseByAnimation = Arrays.copyOf(phaseByAnimation, phaseAnimationCount * 2);
+            }
+            phaseAnimationIds[phaseAnimationCount] = animationId;
+            phaseByAnimation[phaseAnimationCount] = phase;
+            phaseAnimationCount++;
+            return this;
+        }
+
+        public Builder graphicPhase(int graphicId, int phase) {
+            if (phaseGraphicCount == phaseGraphicIds.length) {
+                phaseGraphicIds = Arrays.copyOf(phaseGraphicIds, phaseGraphicCount * 2);
+                phaseByGraphic = Arrays.copyOf(phaseByGraphic, phaseGraphicCount * 2);
+            }
+            phaseGraphicIds[phaseGraphicCount] = graphicId;
+            phaseByGraphic[phaseGraphicCount] = phase;
+            phaseGraphicCount++;
+            return this;
+        }
+
+        /**
+         * Switch to a faster cycle once the given graphic has been seen
+         * {@code threshold} times on an NPC
+         */
+        public Builder enrage(int graphicId, int threshold, int enrageCycleTicks) {
+            this.enrageGraphicId = graphicId;
+            this.enrageThreshold = threshold;
+            this.enrageCycleTicks = enrageCycleTicks;
+            return this;
+        }
+
+        public AttackCycleDefinition build() {
+            if (cycleTicks <= 0) {
+                throw new IllegalStateException(bossName + ": cycle ticks must be positive");
+            }
+            return new AttackCycleDefinition(this);
+        }
+    }
+}
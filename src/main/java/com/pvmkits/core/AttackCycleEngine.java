@@ -0,0 +1,255 @@
+package com.pvmkits.core;
+
+/**
+ * Shared attack-timer state machine for every boss. Tracks phase, attack
+ * deadline, attack cooldown and enrage per NPC in an {@link NpcStateTable},
+ * configured by an {@link AttackCycleDefinition}.
+ *
+ * Handlers report animations and graphics as their change events arrive;
+ * every event for one NPC within a tick is merged into a single update (one
+ * attack, graphic phases winning over animation phases). Per tick the handler
+ * calls {@link #initTimer(int, int)} for NPCs in the scene, then
+ * {@link #tick(int)}. Decisions are recorded to the {@link TickTrace} rather
+ * than logged.
+ *
+ * Timers are stored as the absolute tick of the next attack and read as
+ * ticks remaining, so a tick does not visit any NPC. An attack that arrives
+ * after its deadline is traced when it is seen.
+ */
+public class AttackCycleEngine {
+
+    public static final int COL_PHASE = 0;
+    public static final int COL_ATTACK_DEADLINE = 1; // Tick the next attack is due
+    public static final int COL_COOLDOWN_EXPIRY = 2; // Tick when the attack cooldown expires
+    public static final int COL_ENRAGE_COUNT = 3; // Enrage graphics seen
+    public static final int COL_LAST_ANIMATION = 4; // Last traced animation, prevents duplicate records
+    public static final int COL_UPDATE_TICK = 5; // Tick of the last animation or graphic merged
+    public static final int COL_UPDATE_FLAGS = 6; // What that tick's events already decided
+
+    // Handlers may add their own columns starting here
+    public static final int FIRST_EXTRA_COLUMN = 7;
+
+    public static final int NO_DEADLINE = Integer.MIN_VALUE;
+    private static final int NO_COOLDOWN = Integer.MIN_VALUE;
+    private static final int NO_UPDATE = Integer.MIN_VALUE;
+
+    // COL_UPDATE_FLAGS bits
+    private static final int UPDATE_ATTACKED = 1;
+    private static final int UPDATE_GRAPHIC_PHASE = 2;
+
+    private final AttackCycleDefinition definition;
+    private final NpcStateTable states;
+    private final TickTrace tickTrace;
+
+    private int currentTick;
+
+    /**
+     * Create an engine, optionally with extra handler-owned columns starting at
+     * {@link #FIRST_EXTRA_COLUMN} with the given defaults
+     */
+    public AttackCycleEngine(AttackCycleDefinition definition, TickTrace tickTrace, int... extraColumnDefaults) {
+        this.definition = definition;
+        this.tickTrace = tickTrace;
+
+        int[] defaults = new int[FIRST_EXTRA_COLUMN + extraColumnDefaults.length];
+        defaults[COL_PHASE] = definition.getDefaultPhase();
+        defaults[COL_ATTACK_DEADLINE] = NO_DEADLINE;
+        defaults[COL_COOLDOWN_EXPIRY] = NO_COOLDOWN;
+        defaults[COL_ENRAGE_COUNT] = 0;
+        defaults[COL_LAST_ANIMATION] = -1;
+        defaults[COL_UPDATE_TICK] = NO_UPDATE;
+        defaults[COL_UPDATE_FLAGS] = 0;
+        System.arraycopy(extraColumnDefaults, 0, defaults, FIRST_EXTRA_COLUMN, extraColumnDefaults.length);
+        this.states = new NpcStateTable(defaults);
+    }
+
+    public AttackCycleDefinition getDefinition() {
+        return definition;
+    }
+
+    /**
+     * Direct access to the state rows, for handler-owned extra columns
+     */
+    public NpcStateTable getStates() {
+        return states;
+    }
+
+    /**
+     * Get the slot of an NPC, starting to track it if needed
+     */
+    public int track(int npcIndex) {
+        return states.track(npcIndex);
+    }
+
+    public boolean isTracked(int npcIndex) {
+        return states.contains(npcIndex);
+    }
+
+    /**
+     * Apply an animation seen on a tracked NPC. Returns true if it was accepted
+     * as an attack (timer reset); at most one animation or graphic per NPC per
+     * tick is.
+     */
+    public boolean onAnimation(int slot, int animationId, int currentTick) {
+        if (animationId == -1) {
+            return false;
+        }
+
+        if (states.get(slot, COL_LAST_ANIMATION) != animationId) {
+            tickTrace.record(TickTrace.Kind.ANIMATION, states.getNpcIndex(slot), animationId);
+            states.set(slot, COL_LAST_ANIMATION, animationId);
+        }
+
+        int flags = beginUpdate(slot, currentTick);
+        boolean attacked = (flags & UPDATE_ATTACKED) == 0 && definition.isAttackAnimation(animationId)
+                && resetAttackTimer(slot, currentTick);
+
+        // A graphic seen this tick is more specific than the animation (Yama's
+        // melee and orb attacks share one animation)
+        int phase = definition.getPhaseForAnimation(animationId);
+        if (phase >= 0 && (flags & UPDATE_GRAPHIC_PHASE) == 0) {
+            states.set(slot, COL_PHASE, phase);
+        }
+
+        if (attacked) {
+            states.set(slot, COL_UPDATE_FLAGS, flags | UPDATE_ATTACKED);
+        }
+        return attacked;
+    }
+
+    /**
+     * Apply a graphic seen on a tracked NPC. Returns true if it was accepted as
+     * an attack (timer reset); at most one animation or graphic per NPC per tick
+     * is.
+     */
+    public boolean onGraphic(int slot, int graphicId, int currentTick) {
+        if (graphicId == definition.getEnrageGraphicId()) {
+            int enrageCount = states.get(slot, COL_ENRAGE_COUNT) + 1;
+            states.set(slot, COL_ENRAGE_COUNT, enrageCount);
+            tickTrace.record(TickTrace.Kind.PHASE_TRANSITION, states.getNpcIndex(slot), enrageCount);
+        }
+
+        int flags = beginUpdate(slot, currentTick);
+        boolean attacked = (flags & UPDATE_ATTACKED) == 0 && definition.isAttackGraphic(graphicId)
+                && resetAttackTimer(slot, currentTick);
+        if (attacked) {
+            flags |= UPDATE_ATTACKED;
+        }
+
+        int phase = definition.getPhaseForGraphic(graphicId);
+        if (phase >= 0) {
+            states.set(slot, COL_PHASE, phase);
+            flags |= UPDATE_GRAPHIC_PHASE;
+        }
+
+        states.set(slot, COL_UPDATE_FLAGS, flags);
+        return attacked;
+    }
+
+    /**
+     * Start the attack timer of an NPC seen in the scene if it has none yet.
+     * Returns true if the timer was initialized.
+     */
+    public boolean initTimer(int slot, int currentTick) {
+        if (states.get(slot, COL_ATTACK_DEADLINE) != NO_DEADLINE) {
+            return false;
+        }
+
+        int attackTicks = getCycleTicks(slot);
+        states.set(slot, COL_ATTACK_DEADLINE, currentTick + attackTicks);
+        tickTrace.record(TickTrace.Kind.TIMER_INIT, states.getNpcIndex(slot), attackTicks);
+        return true;
+    }
+
+    /**
+     * Move the timers to the given tick. Nothing is counted down; a timer that
+     * reaches 1 stays there until the attack is detected.
+     */
+    public void tick(int currentTick) {
+        this.currentTick = currentTick;
+    }
+
+    public void clear() {
+        states.clear();
+    }
+
+    public boolean isEmpty() {
+        return states.isEmpty();
+    }
+
+    public int getPhase(int npcIndex) {
+        return states.getOrDefault(npcIndex, COL_PHASE, definition.getDefaultPhase());
+    }
+
+    /**
+     * Get ticks until the next attack, or a full cycle if the NPC has no timer
+     */
+    public int getAttackTimer(int npcIndex) {
+        return toTimer(states.getOrDefault(npcIndex, COL_ATTACK_DEADLINE, NO_DEADLINE));
+    }
+
+    /**
+     * Get the phase of the NPC in a tracked slot
+     */
+    public int getSlotPhase(int slot) {
+        return states.get(slot, COL_PHASE);
+    }
+
+    /**
+     * Get ticks until the next attack of the NPC in a tracked slot, or a full
+     * cycle if it has no timer
+     */
+    public int getSlotAttackTimer(int slot) {
+        return toTimer(states.get(slot, COL_ATTACK_DEADLINE));
+    }
+
+    public boolean isEnraged(int npcIndex) {
+        int slot = states.slotOf(npcIndex);
+        return slot >= 0 && isEnragedSlot(slot);
+    }
+
+    private boolean isEnragedSlot(int slot) {
+        return definition.getEnrageGraphicId() != AttackCycleDefinition.NO_ENRAGE
+                && states.get(slot, COL_ENRAGE_COUNT) >= definition.getEnrageThreshold();
+    }
+
+    private int getCycleTicks(int slot) {
+        return isEnragedSlot(slot) ? definition.getEnrageCycleTicks() : definition.getCycleTicks();
+    }
+
+    private int toTimer(int deadline) {
+        return deadline == NO_DEADLINE ? definition.getCycleTicks() : Math.max(1, deadline - currentTick);
+    }
+
+    // Get what earlier events this tick decided for the slot, starting over on a new tick
+    private int beginUpdate(int slot, int currentTick) {
+        if (states.get(slot, COL_UPDATE_TICK) != currentTick) {
+            states.set(slot, COL_UPDATE_TICK, currentTick);
+            states.set(slot, COL_UPDATE_FLAGS, 0);
+            return 0;
+        }
+        return states.get(slot, COL_UPDATE_FLAGS);
+    }
+
+    private boolean resetAttackTimer(int slot, int currentTick) {
+        int cooldownExpiry = states.get(slot, COL_COOLDOWN_EXPIRY);
+
+        // Only reset timer if we're not in cooldown or cooldown has expired
+        if (currentTick < cooldownExpiry) {
+            tickTrace.record(TickTrace.Kind.ATTACK_IGNORED, states.getNpcIndex(slot), cooldownExpiry);
+            return false;
+        }
+
+        // The timer was held at 1 past its deadline
+        int deadline = states.get(slot, COL_ATTACK_DEADLINE);
+        if (deadline != NO_DEADLINE && currentTick > deadline) {
+            tickTrace.record(TickTrace.Kind.ATTACK_OVERDUE, states.getNpcIndex(slot), deadline);
+        }
+
+        int attackTicks = getCycleTicks(slot);
+        states.set(slot, COL_ATTACK_DEADLINE, currentTick + attackTicks);
+        states.set(slot, COL_COOLDOWN_EXPIRY, currentTick + definition.getCooldownTicks());
+        tickTrace.record(TickTrace.Kind.ATTACK, states.getNpcIndex(slot), attackTicks);
+        return true;
+    }
+}
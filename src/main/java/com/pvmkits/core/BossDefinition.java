@@ -0,0 +1,207 @@
+package com.pvmkits.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * Boss data read from a properties resource next to the handler: the NPC,
+ * animation, graphic and object IDs it owns, its size and its attack cycle.
+ * Parsed once when the handler is created and compiled into primitive ID
+ * tables and an {@link AttackCycleDefinition}, so updating an ID is a
+ * resource edit and nothing is looked up by key at runtime.
+ *
+ * Keys:
+ * <pre>
+ * name                      display name
+ * size                      footprint in tiles (default 1)
+ * npcs                      boss NPC IDs, comma separated
+ * group.&lt;group&gt;             scene snapshot group NPC IDs, e.g. group.sleepwalker
+ * animations, graphics,
+ * objects, projectiles      event IDs forwarded to the handler
+ * cycle.ticks               ticks between attacks
+ * cooldown.ticks            ticks after an attack before another is accepted
+ * phase.default             phase when none is known
+ * attack.animations         animations that count as an attack
+ * attack.graphics           graphics that count as an attack
+ * phase.animation.&lt;id&gt;     phase implied by an animation
+ * phase.graphic.&lt;id&gt;       phase implied by a graphic
+ * enrage.graphic, enrage.threshold, enrage.cycle.ticks
+ *                           optional faster cycle after an enrage graphic
+ * </pre>
+ * Phases are names of the handler's phase enum. Handlers read any other key
+ * they own with {@link #getInt(String)}.
+ */
+public final class BossDefinition {
+
+    private static final SceneSnapshot.Group[] GROUPS = SceneSnapshot.Group.values();
+    private static final String PHASE_ANIMATION_PREFIX = "phase.animation.";
+    private static final String PHASE_GRAPHIC_PREFIX = "phase.graphic.";
+
+    private final String resource;
+    private final Properties properties;
+    private final String name;
+    private final int size;
+    private final int[] npcIds;
+    private final int[][] sceneNpcIds;
+    private final int[] animationIds;
+    private final int[] graphicIds;
+    private final int[] gameObjectIds;
+    private final int[] projectileIds;
+    private final AttackCycleDefinition attackCycle;
+
+    private <E extends Enum<E>> BossDefinition(String resource, Properties properties, Class<E> phaseType) {
+        this.resource = resource;
+        this.properties = properties;
+        name = getString("name");
+        size = getInt("size", 1);
+        npcIds = getIds("npcs");
+
+        sceneNpcIds = new int[GROUPS.length][];
+        for (SceneSnapshot.Group group : GROUPS) {
+            sceneNpcIds[group.ordinal()] = group == SceneSnapshot.Group.BOSS ? npcIds
+                    : getIds("group." + group.name().toLowerCase());
+        }
+
+        animationIds = getIds("animations");
+        graphicIds = getIds("graphics");
+        gameObjectIds = getIds("objects");
+        projectileIds = getIds("projectiles");
+
+        AttackCycleDefinition.Builder builder = AttackCycleDefinition.builder(name)
+                .cycleTicks(getInt("cycle.ticks"))
+                .cooldownTicks(getInt("cooldown.ticks", 0))
+                .defaultPhase(getPhase(phaseType, getString("phase.default")))
+                .attackAnimations(getIds("attack.animations"))
+                .attackGraphics(getIds("attack.graphics"));
+
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(PHASE_ANIMATION_PREFIX)) {
+                builder.animationPhase(parseInt(key, key.substring(PHASE_ANIMATION_PREFIX.length())),
+                        getPhase(phaseType, getString(key)));
+            } else if (key.startsWith(PHASE_GRAPHIC_PREFIX)) {
+                builder.graphicPhase(parseInt(key, key.substring(PHASE_GRAPHIC_PREFIX.length())),
+                        getPhase(phaseType, getString(key)));
+            }
+        }
+
+        if (properties.containsKey("enrage.graphic")) {
+            builder.enrage(getInt("enrage.graphic"), getInt("enrage.threshold"), getInt("enrage.cycle.ticks"));
+        }
+
+        try {
+            attackCycle = builder.build();
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException(resource + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parse the definition resource of a handler, relative to its package.
+     * Phase names are resolved against the given enum.
+     */
+    public static <E extends Enum<E>> BossDefinition load(Class<?> owner, String resource, Class<E> phaseType) {
+        Properties properties = new Properties();
+        try (InputStream in = owner.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing boss definition " + resource + " for " + owner.getName());
+            }
+            properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read boss definition " + resource, e);
+        }
+        return new BossDefinition(resource, properties, phaseType);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Footprint size in tiles
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public int[] getNpcIds() {
+        return npcIds;
+    }
+
+    public int[] getSceneNpcIds(SceneSnapshot.Group group) {
+        return sceneNpcIds[group.ordinal()];
+    }
+
+    public int[] getAnimationIds() {
+        return animationIds;
+    }
+
+    public int[] getGraphicIds() {
+        return graphicIds;
+    }
+
+    public int[] getGameObjectIds() {
+        return gameObjectIds;
+    }
+
+    public int[] getProjectileIds() {
+        return projectileIds;
+    }
+
+    public AttackCycleDefinition getAttackCycle() {
+        return attackCycle;
+    }
+
+    /**
+     * Get a required integer key, e.g. a boss specific animation ID
+     */
+    public int getInt(String key) {
+        return parseInt(key, getString(key));
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : parseInt(key, value);
+    }
+
+    private String getString(String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalStateException(resource + ": missing " + key);
+        }
+        return value.trim();
+    }
+
+    // Comma separated IDs, empty when the key is absent
+    private int[] getIds(String key) {
+        String value = properties.getProperty(key, "").trim();
+        if (value.isEmpty()) {
+            return new int[0];
+        }
+
+        String[] parts = value.split(",");
+        int[] ids = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            ids[i] = parseInt(key, parts[i]);
+        }
+        return ids;
+    }
+
+    private int parseInt(String key, String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException(resource + ": " + key + " is not a number: " + value, e);
+        }
+    }
+
+    private <E extends Enum<E>> int getPhase(Class<E> phaseType, String phaseName) {
+        try {
+            return Enum.valueOf(phaseType, phaseName).ordinal();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException(resource + ": unknown phase " + phaseName, e);
+        }
+    }
+}
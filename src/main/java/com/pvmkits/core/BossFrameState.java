@@ -0,0 +1,132 @@
+package com.pvmkits.core;
+
+import net.runelite.api.NPC;
+
+import java.util.Arrays;
+
+/**
+ * Immutable per-tick view of every tracked boss NPC: phase, effective phase
+ * (the prayer to click, e.g. with Phosani's curse), attack timer and curse
+ * count, stored as parallel arrays. Handlers fill a {@link Builder} on the
+ * client thread and publish the built frame through a single volatile field,
+ * so overlays always render one consistent tick without any lookups.
+ */
+public final class BossFrameState {
+
+    public static final BossFrameState EMPTY = new BossFrameState(-1, 0, new NPC[0], new int[0], new int[0],
+            new int[0], new int[0]);
+
+    private final int tick;
+    private final int size;
+    private final NPC[] npcs;
+    private final int[] phases;
+    private final int[] effectivePhases;
+    private final int[] attackTimers;
+    private final int[] curseAttacks;
+
+    private BossFrameState(int tick, int size, NPC[] npcs, int[] phases, int[] effectivePhases, int[] attackTimers,
+            int[] curseAttacks) {
+        this.tick = tick;
+        this.size = size;
+        this.npcs = npcs;
+        this.phases = phases;
+        this.effectivePhases = effectivePhases;
+        this.attackTimers = attackTimers;
+        this.curseAttacks = curseAttacks;
+    }
+
+    /**
+     * Game tick the frame was built on, -1 for {@link #EMPTY}
+     */
+    public int getTick() {
+        return tick;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public NPC getNpc(int i) {
+        return npcs[i];
+    }
+
+    /**
+     * Phase ordinal of the boss's own phase enum
+     */
+    public int getPhase(int i) {
+        return phases[i];
+    }
+
+    /**
+     * Phase ordinal whose color the overlay should show
+     */
+    public int getEffectivePhase(int i) {
+        return effectivePhases[i];
+    }
+
+    public int getAttackTimer(int i) {
+        return attackTimers[i];
+    }
+
+    public int getCurseAttacks(int i) {
+        return curseAttacks[i];
+    }
+
+    /**
+     * Reusable back buffer a handler fills each tick before building the
+     * published frame
+     */
+    public static final class Builder {
+
+        private int tick;
+        private int size;
+        private NPC[] npcs = new NPC[4];
+        private int[] phases = new int[4];
+        private int[] effectivePhases = new int[4];
+        private int[] attackTimers = new int[4];
+        private int[] curseAttacks = new int[4];
+
+        public Builder begin(int tick) {
+            this.tick = tick;
+            Arrays.fill(npcs, 0, size, null);
+            size = 0;
+            return this;
+        }
+
+        public Builder add(NPC npc, int phase, int effectivePhase, int attackTimer, int curseAttackCount) {
+            if (size == npcs.length) {
+                int capacity = size * 2;
+                npcs = Arrays.copyOf(npcs, capacity);
+                phases = Arrays.copyOf(phases, capacity);
+                effectivePhases = Arrays.copyOf(effectivePhases, capacity);
+                attackTimers = Arrays.copyOf(attackTimers, capacity);
+                curseAttacks = Arrays.copyOf(curseAttacks, capacity);
+            }
+
+            npcs[size] = npc;
+            phases[size] = phase;
+            effectivePhases[size] = effectivePhase;
+            attackTimers[size] = attackTimer;
+            curseAttacks[size] = curseAttackCount;
+            size++;
+            return this;
+        }
+
+        /**
+         * Copy the buffer into a new immutable frame
+         */
+        public BossFrameState build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+
+            return new BossFrameState(tick, size, Arrays.copyOf(npcs, size), Arrays.copyOf(phases, size),
+                    Arrays.copyOf(effectivePhases, size), Arrays.copyOf(attackTimers, size),
+                    Arrays.copyOf(curseAttacks, size));
+        }
+    }
+}
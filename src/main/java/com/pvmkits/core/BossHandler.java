@@ -2,7 +2,10 @@ package com.pvmkits.core;
 
 import net.runelite.api.Actor;
 import net.runelite.api.Client;
+import net.runelite.api.NPC;
 import net.runelite.api.events.AnimationChanged;
+import net.runelite.api.events.GameObjectDespawned;
+import net.runelite.api.events.GameObjectSpawned;
 import net.runelite.api.events.GraphicChanged;
 import net.runelite.api.events.GameTick;
 import net.runelite.api.events.ProjectileMoved;
@@ -18,9 +21,47 @@ public interface BossHandler {
     String getBossName();
 
     /**
-     * Check if the current area/context matches this boss
+     * Get the NPC IDs owned by this boss. Any of these spawning activates the
+     * handler, and the handler is deactivated once all of them have despawned.
      */
-    boolean isInBossArea(Client client);
+    int[] getNpcIds();
+
+    /**
+     * Get the NPC IDs to bucket into the given scene snapshot group while this
+     * boss is active. Bosses with adds (sleepwalkers, husks...) override this.
+     */
+    default int[] getSceneNpcIds(SceneSnapshot.Group group) {
+        return group == SceneSnapshot.Group.BOSS ? getNpcIds() : new int[0];
+    }
+
+    /**
+     * Get the animation IDs this boss reacts to. Animation events from other
+     * NPCs or with other IDs are dropped before reaching the handler.
+     */
+    default int[] getAnimationIds() {
+        return new int[0];
+    }
+
+    /**
+     * Get the graphic IDs this boss reacts to
+     */
+    default int[] getGraphicIds() {
+        return new int[0];
+    }
+
+    /**
+     * Get the game object IDs this boss tracks
+     */
+    default int[] getGameObjectIds() {
+        return new int[0];
+    }
+
+    /**
+     * Get the projectile IDs this boss tracks
+     */
+    default int[] getProjectileIds() {
+        return new int[0];
+    }
 
     /**
      * Handle animation changes for this boss
@@ -39,6 +80,35 @@ public interface BossHandler {
         // Default empty implementation for bosses that don't use projectiles
     }
 
+    /**
+     * Handle spawns of objects listed in {@link #getGameObjectIds()}
+     */
+    default void onGameObjectSpawned(GameObjectSpawned event) {
+        // Default empty implementation for bosses that don't track objects
+    }
+
+    /**
+     * Handle despawns of objects listed in {@link #getGameObjectIds()}
+     */
+    default void onGameObjectDespawned(GameObjectDespawned event) {
+        // Default empty implementation for bosses that don't track objects
+    }
+
+    /**
+     * Handle any NPC spawning while this boss is active, e.g. to track adds.
+     * Also called for every loaded NPC when the boss becomes active.
+     */
+    default void onNpcSpawned(NPC npc) {
+        // Default empty implementation for bosses without adds
+    }
+
+    /**
+     * Handle any NPC despawning while this boss is active
+     */
+    default void onNpcDespawned(NPC npc) {
+        // Default empty implementation for bosses without adds
+    }
+
     /**
      * Handle game tick updates for this boss
      */
@@ -49,6 +119,14 @@ public interface BossHandler {
      */
     Actor getBossActor(Client client);
 
+    /**
+     * Get the boss state published on the last game tick. Safe to call from
+     * the render thread.
+     */
+    default BossFrameState getFrameState() {
+        return BossFrameState.EMPTY;
+    }
+
     /**
      * Reset the handler state
      */
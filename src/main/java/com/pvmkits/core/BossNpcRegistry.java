@@ -0,0 +1,133 @@
+package com.pvmkits.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps boss NPC IDs to the handler that owns them and keeps a live count of
+ * spawned boss NPCs per handler. Driven by NPC spawn/despawn events so that
+ * finding the active boss never requires scanning the world view.
+ */
+public class BossNpcRegistry {
+
+    private static final int NO_HANDLER = -1;
+
+    // Registered handlers in priority order (first live handler wins)
+    private final List<BossHandler> handlers = new ArrayList<>();
+
+    // NPC ID -> position of the owning handler in the handlers list, or
+    // NO_HANDLER; IDs past the end are not bosses either
+    private int[] handlerSlotByNpcId = new int[0];
+
+    // Event filters compiled from each handler's declared IDs, indexed by slot
+    private final List<EventInterest> interests = new ArrayList<>();
+
+    // Number of currently spawned NPCs owned by each handler, indexed by slot
+    private int[] liveNpcCounts = new int[0];
+
+    /**
+     * Register a handler and all of the NPC IDs it owns
+     */
+    public void register(BossHandler handler) {
+        int slot = handlers.size();
+        handlers.add(handler);
+        liveNpcCounts = Arrays.copyOf(liveNpcCounts, handlers.size());
+
+        interests.add(EventInterest.of(handler));
+
+        for (int npcId : handler.getNpcIds()) {
+            if (npcId >= handlerSlotByNpcId.length) {
+                int oldLength = handlerSlotByNpcId.length;
+                handlerSlotByNpcId = Arrays.copyOf(handlerSlotByNpcId, npcId + 1);
+                Arrays.fill(handlerSlotByNpcId, oldLength, handlerSlotByNpcId.length, NO_HANDLER);
+            }
+            if (handlerSlotByNpcId[npcId] == NO_HANDLER) {
+                handlerSlotByNpcId[npcId] = slot;
+            }
+        }
+    }
+
+    /**
+     * Remove all handlers and counts
+     */
+    public void unregisterAll() {
+        handlers.clear();
+        interests.clear();
+        handlerSlotByNpcId = new int[0];
+        liveNpcCounts = new int[0];
+    }
+
+    /**
+     * Forget every live NPC, e.g. when the scene is torn down without despawn
+     * events
+     */
+    public void clearLiveNpcs() {
+        Arrays.fill(liveNpcCounts, 0);
+    }
+
+    /**
+     * Record an NPC spawn. Returns true if the NPC belongs to a registered boss.
+     */
+    public boolean npcSpawned(int npcId) {
+        int slot = slotOf(npcId);
+        if (slot == NO_HANDLER) {
+            return false;
+        }
+
+        liveNpcCounts[slot]++;
+        return true;
+    }
+
+    /**
+     * Record an NPC despawn. Returns true if the NPC belongs to a registered boss.
+     */
+    public boolean npcDespawned(int npcId) {
+        int slot = slotOf(npcId);
+        if (slot == NO_HANDLER) {
+            return false;
+        }
+
+        if (liveNpcCounts[slot] > 0) {
+            liveNpcCounts[slot]--;
+        }
+        return true;
+    }
+
+    /**
+     * Get the handler owning the given NPC ID, or null if no boss owns it
+     */
+    public BossHandler getHandler(int npcId) {
+        int slot = slotOf(npcId);
+        return slot != NO_HANDLER ? handlers.get(slot) : null;
+    }
+
+    /**
+     * Get the first registered handler that currently has live NPCs, or null
+     */
+    public BossHandler getActiveHandler() {
+        for (int slot = 0; slot < liveNpcCounts.length; slot++) {
+            if (liveNpcCounts[slot] > 0) {
+                return handlers.get(slot);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the compiled event filter of a registered handler, or
+     * {@link EventInterest#NONE} for null or unregistered handlers
+     */
+    public EventInterest getEventInterest(BossHandler handler) {
+        int slot = handlers.indexOf(handler);
+        return slot >= 0 ? interests.get(slot) : EventInterest.NONE;
+    }
+
+    public List<BossHandler> getHandlers() {
+        return handlers;
+    }
+
+    private int slotOf(int npcId) {
+        return npcId >= 0 && npcId < handlerSlotByNpcId.length ? handlerSlotByNpcId[npcId] : NO_HANDLER;
+    }
+}
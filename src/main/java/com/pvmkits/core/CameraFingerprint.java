@@ -0,0 +1,50 @@
+package com.pvmkits.core;
+
+import net.runelite.api.Client;
+
+/**
+ * Everything that affects where a local tile lands on the canvas: camera
+ * position, pitch, yaw, zoom, viewport and plane. Used to tell whether cached
+ * screen geometry is still valid.
+ */
+public class CameraFingerprint {
+
+    private final int[] state = new int[11];
+    private boolean initialized;
+
+    /**
+     * Capture the current camera. Returns true if it differs from the last
+     * capture.
+     */
+    public boolean update(Client client) {
+        boolean changed = !initialized;
+        changed |= set(0, client.getCameraX());
+        changed |= set(1, client.getCameraY());
+        changed |= set(2, client.getCameraZ());
+        changed |= set(3, client.getCameraPitch());
+        changed |= set(4, client.getCameraYaw());
+        changed |= set(5, client.getScale());
+        changed |= set(6, client.getViewportWidth());
+        changed |= set(7, client.getViewportHeight());
+        changed |= set(8, client.getViewportXOffset());
+        changed |= set(9, client.getViewportYOffset());
+        changed |= set(10, client.getPlane());
+        initialized = true;
+        return changed;
+    }
+
+    /**
+     * Force the next update to report a change
+     */
+    public void invalidate() {
+        initialized = false;
+    }
+
+    private boolean set(int field, int value) {
+        if (state[field] == value) {
+            return false;
+        }
+        state[field] = value;
+        return true;
+    }
+}
@@ -0,0 +1,56 @@
+package com.pvmkits.core;
+
+/**
+ * The IDs a {@link BossHandler} declared interest in, compiled into bitsets
+ * once at registration. The plugin tests events against these before
+ * dispatching, so handlers only ever see events that concern them.
+ */
+public final class EventInterest {
+
+    public static final EventInterest NONE = new EventInterest(IdBitSet.EMPTY, IdBitSet.EMPTY, IdBitSet.EMPTY,
+            IdBitSet.EMPTY, IdBitSet.EMPTY);
+
+    private final IdBitSet npcIds;
+    private final IdBitSet animationIds;
+    private final IdBitSet graphicIds;
+    private final IdBitSet gameObjectIds;
+    private final IdBitSet projectileIds;
+
+    private EventInterest(IdBitSet npcIds, IdBitSet animationIds, IdBitSet graphicIds, IdBitSet gameObjectIds,
+            IdBitSet projectileIds) {
+        this.npcIds = npcIds;
+        this.animationIds = animationIds;
+        this.graphicIds = graphicIds;
+        this.gameObjectIds = gameObjectIds;
+        this.projectileIds = projectileIds;
+    }
+
+    public static EventInterest of(BossHandler handler) {
+        return new EventInterest(
+                IdBitSet.of(handler.getNpcIds()),
+                IdBitSet.of(handler.getAnimationIds()),
+                IdBitSet.of(handler.getGraphicIds()),
+                IdBitSet.of(handler.getGameObjectIds()),
+                IdBitSet.of(handler.getProjectileIds()));
+    }
+
+    public boolean isInterestedInNpc(int npcId) {
+        return npcIds.contains(npcId);
+    }
+
+    public boolean isInterestedInAnimation(int animationId) {
+        return animationIds.contains(animationId);
+    }
+
+    public boolean isInterestedInGraphic(int graphicId) {
+        return graphicIds.contains(graphicId);
+    }
+
+    public boolean isInterestedInGameObject(int objectId) {
+        return gameObjectIds.contains(objectId);
+    }
+
+    public boolean isInterestedInProjectile(int projectileId) {
+        return projectileIds.contains(projectileId);
+    }
+}
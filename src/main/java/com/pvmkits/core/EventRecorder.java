@@ -0,0 +1,228 @@
+package com.pvmkits.core;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.NPC;
+import net.runelite.api.TileObject;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldPoint;
+
+import javax.inject.Singleton;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the boss events the plugin sees to a compact binary file (see
+ * {@link RecordingFormat}) so fights can be replayed headlessly against a
+ * handler. Does nothing unless a recording has been started.
+ *
+ * Any write failure stops the recording rather than interrupting the fight.
+ */
+@Slf4j
+@Singleton
+public class EventRecorder {
+
+    private static final SceneSnapshot.Group[] GROUPS = SceneSnapshot.Group.values();
+
+    private DataOutputStream out;
+    private File file;
+
+    // Delta encoding state, mirrored by the reader
+    private int lastTick;
+    private int[] lastNpcX;
+    private int[] lastNpcY;
+    private int lastObjectX;
+    private int lastObjectY;
+
+    public boolean isRecording() {
+        return out != null;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Start recording to the given file, stopping any current recording
+     */
+    public void start(File file) throws IOException {
+        stop();
+
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Unable to create " + parent);
+        }
+
+        DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        stream.writeInt(RecordingFormat.MAGIC);
+        stream.writeByte(RecordingFormat.VERSION);
+
+        out = stream;
+        this.file = file;
+        lastTick = 0;
+        lastNpcX = new int[0];
+        lastNpcY = new int[0];
+        lastObjectX = 0;
+        lastObjectY = 0;
+    }
+
+    /**
+     * Flush and close the current recording, if any
+     */
+    public void stop() {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("Unable to close recording {}", file, e);
+        }
+        out = null;
+        lastNpcX = null;
+        lastNpcY = null;
+    }
+
+    /**
+     * Record a game tick along with every NPC in the scene snapshot
+     */
+    public void recordTick(int tick, SceneSnapshot sceneSnapshot) {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            int npcCount = 0;
+            for (SceneSnapshot.Group group : GROUPS) {
+                npcCount += sceneSnapshot.getNpcs(group).size();
+            }
+
+            out.writeByte(RecordingFormat.TICK);
+            RecordingFormat.writeVarInt(out, tick - lastTick);
+            RecordingFormat.writeVarInt(out, npcCount);
+            lastTick = tick;
+
+            for (SceneSnapshot.Group group : GROUPS) {
+                List<NPC> npcs = sceneSnapshot.getNpcs(group);
+                for (int i = 0; i < npcs.size(); i++) {
+                    writeNpc(npcs.get(i));
+                }
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    public void recordAnimation(NPC npc) {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            out.writeByte(RecordingFormat.ANIMATION);
+            RecordingFormat.writeVarInt(out, npc.getIndex());
+            RecordingFormat.writeVarInt(out, npc.getAnimation() + 1);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @SuppressWarnings("deprecation") // getGraphic() is deprecated but still functional
+    public void recordGraphic(NPC npc) {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            out.writeByte(RecordingFormat.GRAPHIC);
+            RecordingFormat.writeVarInt(out, npc.getIndex());
+            RecordingFormat.writeVarInt(out, npc.getGraphic() + 1);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    public void recordNpcSpawned(NPC npc) {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            out.writeByte(RecordingFormat.NPC_SPAWNED);
+            RecordingFormat.writeVarInt(out, npc.getIndex());
+            RecordingFormat.writeVarInt(out, npc.getId());
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    public void recordNpcDespawned(NPC npc) {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            out.writeByte(RecordingFormat.NPC_DESPAWNED);
+            RecordingFormat.writeVarInt(out, npc.getIndex());
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    public void recordObjectSpawned(TileObject object) {
+        recordObject(RecordingFormat.OBJECT_SPAWNED, object);
+    }
+
+    public void recordObjectDespawned(TileObject object) {
+        recordObject(RecordingFormat.OBJECT_DESPAWNED, object);
+    }
+
+    private void recordObject(int type, TileObject object) {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            WorldPoint location = object.getWorldLocation();
+            out.writeByte(type);
+            RecordingFormat.writeVarInt(out, object.getId());
+            RecordingFormat.writeZigZag(out, location.getX() - lastObjectX);
+            RecordingFormat.writeZigZag(out, location.getY() - lastObjectY);
+            RecordingFormat.writeVarInt(out, location.getPlane());
+            lastObjectX = location.getX();
+            lastObjectY = location.getY();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @SuppressWarnings("deprecation") // getGraphic() is deprecated but still functional
+    private void writeNpc(NPC npc) throws IOException {
+        int index = npc.getIndex();
+        if (index >= lastNpcX.length) {
+            lastNpcX = NpcStateTable.ensureIndexCapacity(lastNpcX, index);
+            lastNpcY = NpcStateTable.ensureIndexCapacity(lastNpcY, index);
+        }
+        LocalPoint location = npc.getLocalLocation();
+        int x = location != null ? location.getX() : lastNpcX[index];
+        int y = location != null ? location.getY() : lastNpcY[index];
+
+        RecordingFormat.writeVarInt(out, index);
+        RecordingFormat.writeVarInt(out, npc.getId());
+        RecordingFormat.writeZigZag(out, x - lastNpcX[index]);
+        RecordingFormat.writeZigZag(out, y - lastNpcY[index]);
+        RecordingFormat.writeVarInt(out, npc.getAnimation() + 1);
+        RecordingFormat.writeVarInt(out, npc.getGraphic() + 1);
+        lastNpcX[index] = x;
+        lastNpcY[index] = y;
+    }
+
+    private void fail(IOException e) {
+        log.warn("Recording to {} failed, stopping", file, e);
+        stop();
+    }
+}
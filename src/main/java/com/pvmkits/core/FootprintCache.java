@@ -0,0 +1,153 @@
+package com.pvmkits.core;
+
+import net.runelite.api.Client;
+import net.runelite.api.Perspective;
+import net.runelite.api.coords.LocalPoint;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.awt.Polygon;
+import java.util.Arrays;
+
+/**
+ * Caches the canvas outline of NxN tile footprints (bosses, spore zones...)
+ * keyed by local tile and size. Every entry is dropped as soon as the camera
+ * moves, so frames where neither the camera nor the footprint moved reuse the
+ * previous polygon without reprojecting anything. Corner tiles come from the
+ * {@link TileProjectionMemo}, so footprints sharing tiles project them once.
+ *
+ * Returned polygons are owned by the cache and reused; callers must not keep
+ * or modify them.
+ */
+@Singleton
+public class FootprintCache {
+
+    // Power of two, kept at most half full
+    private static final int CAPACITY = 256;
+    private static final int MASK = CAPACITY - 1;
+    private static final int MAX_ENTRIES = CAPACITY / 2;
+
+    private final long[] keys = new long[CAPACITY];
+    private final boolean[] used = new boolean[CAPACITY];
+    private final boolean[] visible = new boolean[CAPACITY];
+    private final Polygon[] polygons = new Polygon[CAPACITY];
+    private int entryCount;
+
+    private final CameraFingerprint camera = new CameraFingerprint();
+    private int cameraVersion;
+
+    private final TileProjectionMemo tileProjections;
+
+    @Inject
+    public FootprintCache(TileProjectionMemo tileProjections) {
+        this.tileProjections = tileProjections;
+    }
+
+    /**
+     * Check the camera and drop every cached footprint if it moved. Call once
+     * at the start of each overlay render.
+     */
+    public void beginFrame(Client client) {
+        if (camera.update(client)) {
+            cameraVersion++;
+            clear();
+        }
+    }
+
+    /**
+     * Incremented every time the camera moves, for callers caching geometry
+     * built from these footprints
+     */
+    public int getCameraVersion() {
+        return cameraVersion;
+    }
+
+    /**
+     * Get the canvas outline of the size x size footprint centered on the given
+     * local point, or null if it is not on screen
+     */
+    public Polygon getFootprint(Client client, LocalPoint center, int size) {
+        long key = ((long) center.getX() << 32) | ((long) (center.getY() & 0xFFFFFF) << 8) | (size & 0xFF);
+
+        int slot = (int) mix(key) & MASK;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return visible[slot] ? polygons[slot] : null;
+            }
+            slot = (slot + 1) & MASK;
+        }
+
+        if (entryCount >= MAX_ENTRIES) {
+            // Many distinct footprints (e.g. walking NPCs) without a camera move
+            clear();
+            slot = (int) mix(key) & MASK;
+        }
+
+        Polygon polygon = polygons[slot];
+        if (polygon == null) {
+            polygon = new Polygon();
+            polygons[slot] = polygon;
+        }
+
+        keys[slot] = key;
+        used[slot] = true;
+        visible[slot] = project(client, center, size, polygon);
+        entryCount++;
+        return visible[slot] ? polygon : null;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        entryCount = 0;
+    }
+
+    private boolean project(Client client, LocalPoint center, int size, Polygon target) {
+        // Calculate the southwest corner of the area
+        int swX = center.getX() - (Perspective.LOCAL_TILE_SIZE * (size - 1) / 2);
+        int swY = center.getY() - (Perspective.LOCAL_TILE_SIZE * (size - 1) / 2);
+
+        // Calculate the northeast corner of the area
+        int neX = swX + ((size - 1) * Perspective.LOCAL_TILE_SIZE);
+        int neY = swY + ((size - 1) * Perspective.LOCAL_TILE_SIZE);
+
+        // Get the polygons for each corner tile
+        Polygon swPoly = tileProjections.getTilePoly(client, swX, swY);
+        Polygon sePoly = tileProjections.getTilePoly(client, neX, swY);
+        Polygon nePoly = tileProjections.getTilePoly(client, neX, neY);
+        Polygon nwPoly = tileProjections.getTilePoly(client, swX, neY);
+
+        if (swPoly == null || sePoly == null || nePoly == null || nwPoly == null) {
+            return false;
+        }
+
+        // Add the outer points of the area to create the border
+        target.reset();
+        // South edge (SW to SE)
+        addPointsToPolygon(target, swPoly, 0, 1);
+        // East edge (SE to NE)
+        addPointsToPolygon(target, sePoly, 1, 2);
+        // North edge (NE to NW)
+        addPointsToPolygon(target, nePoly, 2, 3);
+        // West edge (NW to SW)
+        addPointsToPolygon(target, nwPoly, 3, 0);
+        return true;
+    }
+
+    // Helper method to add points from one polygon to another
+    private static void addPointsToPolygon(Polygon targetPoly, Polygon sourcePoly, int startIdx, int endIdx) {
+        int sourcePoints = sourcePoly.npoints;
+        if (startIdx >= sourcePoints || endIdx >= sourcePoints) {
+            return;
+        }
+
+        targetPoly.addPoint(sourcePoly.xpoints[startIdx], sourcePoly.ypoints[startIdx]);
+        targetPoly.addPoint(sourcePoly.xpoints[endIdx], sourcePoly.ypoints[endIdx]);
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+}
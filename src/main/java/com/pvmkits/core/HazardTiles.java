@@ -0,0 +1,60 @@
+package com.pvmkits.core;
+
+/**
+ * Tiles covered by square area hazards (spore zones, fire or shadow special
+ * areas...), counted per tile in a {@link PackedTileMap}. Adding a hazard
+ * marks every tile within its radius, so "is this tile dangerous" is a single
+ * lookup whatever the radius, and overlapping hazards keep a tile dangerous
+ * until the last one covering it is removed.
+ */
+public class HazardTiles {
+
+    private final PackedTileMap coverage;
+
+    public HazardTiles(int expectedTiles) {
+        coverage = new PackedTileMap(expectedTiles);
+    }
+
+    /**
+     * Mark the tiles within {@code radius} of a hazard center, e.g. radius 1
+     * for a 3x3 area
+     */
+    public void add(int x, int y, int plane, int radius) {
+        cover(x, y, plane, radius, 1);
+    }
+
+    /**
+     * Unmark the tiles of a hazard added with the same center and radius
+     */
+    public void remove(int x, int y, int plane, int radius) {
+        cover(x, y, plane, radius, -1);
+    }
+
+    public boolean isDangerous(int x, int y, int plane) {
+        return coverage.containsKey(PackedTileMap.pack(x, y, plane));
+    }
+
+    /**
+     * Number of hazards covering a tile
+     */
+    public int getCoverage(int x, int y, int plane) {
+        int count = coverage.get(PackedTileMap.pack(x, y, plane));
+        return count == PackedTileMap.NO_VALUE ? 0 : count;
+    }
+
+    public boolean isEmpty() {
+        return coverage.isEmpty();
+    }
+
+    public void clear() {
+        coverage.clear();
+    }
+
+    private void cover(int x, int y, int plane, int radius, int delta) {
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dy = -radius; dy <= radius; dy++) {
+                coverage.add(PackedTileMap.pack(x + dx, y + dy, plane), delta);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.pvmkits.core;
+
+import net.runelite.api.NPC;
+import net.runelite.api.coords.LocalPoint;
+
+import java.awt.Shape;
+import java.util.Arrays;
+
+/**
+ * Caches NPC convex hulls while the NPC stands still in the same pose under
+ * the same camera. {@link NPC#getConvexHull()} transforms every vertex of the
+ * model, so reusing the last hull of idle NPCs saves most of the work of
+ * highlighting them.
+ *
+ * Entries are keyed by NPC index and checked against the NPC ID, position,
+ * orientation, animation and pose frames and the {@link FootprintCache}
+ * camera version.
+ */
+public class HullCache {
+
+    private static final int COL_NPC_ID = 0;
+    private static final int COL_X = 1;
+    private static final int COL_Y = 2;
+    private static final int COL_ORIENTATION = 3;
+    private static final int COL_ANIMATION = 4;
+    private static final int COL_ANIMATION_FRAME = 5;
+    private static final int COL_POSE_ANIMATION = 6;
+    private static final int COL_POSE_FRAME = 7;
+    private static final int COL_CAMERA_VERSION = 8;
+    private static final int COLUMNS = 9;
+
+    // Start over once this many NPCs were seen, as despawned NPCs are never removed
+    private static final int MAX_ENTRIES = 256;
+
+    // Rows are never removed (only cleared), so slots stay stable for hulls[]
+    private final NpcStateTable keys = new NpcStateTable(new int[COLUMNS]);
+    private Shape[] hulls = new Shape[8];
+    private final int[] key = new int[COLUMNS];
+
+    /**
+     * Get the convex hull of an NPC, recomputing it only when its position,
+     * pose or the camera changed. May return null like the NPC itself.
+     */
+    public Shape getConvexHull(NPC npc, int cameraVersion) {
+        LocalPoint location = npc.getLocalLocation();
+        if (location == null) {
+            return null;
+        }
+
+        key[COL_NPC_ID] = npc.getId();
+        key[COL_X] = location.getX();
+        key[COL_Y] = location.getY();
+        key[COL_ORIENTATION] = npc.getOrientation();
+        key[COL_ANIMATION] = npc.getAnimation();
+        key[COL_ANIMATION_FRAME] = npc.getAnimationFrame();
+        key[COL_POSE_ANIMATION] = npc.getPoseAnimation();
+        key[COL_POSE_FRAME] = npc.getPoseAnimationFrame();
+        key[COL_CAMERA_VERSION] = cameraVersion;
+
+        boolean known = keys.contains(npc.getIndex());
+        if (!known && keys.size() >= MAX_ENTRIES) {
+            clear();
+        }
+        int slot = keys.track(npc.getIndex());
+        if (slot >= hulls.length) {
+            hulls = Arrays.copyOf(hulls, Math.max(slot + 1, hulls.length * 2));
+        }
+
+        if (known && hulls[slot] != null && matches(slot)) {
+            return hulls[slot];
+        }
+
+        for (int column = 0; column < COLUMNS; column++) {
+            keys.set(slot, column, key[column]);
+        }
+        hulls[slot] = npc.getConvexHull();
+        return hulls[slot];
+    }
+
+    public void clear() {
+        keys.clear();
+        Arrays.fill(hulls, null);
+    }
+
+    private boolean matches(int slot) {
+        for (int column = 0; column < COLUMNS; column++) {
+            if (keys.get(slot, column) != key[column]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,51 @@
+package com.pvmkits.core;
+
+/**
+ * Immutable set of non-negative game IDs (NPC, animation, graphic, object,
+ * projectile) stored as a bitset, so membership is one array load and a bit
+ * test with no boxing or hashing.
+ */
+public final class IdBitSet {
+
+    public static final IdBitSet EMPTY = new IdBitSet(new long[0]);
+
+    private final long[] words;
+
+    private IdBitSet(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Build a set from one or more ID arrays. Negative IDs are ignored.
+     */
+    public static IdBitSet of(int[]... idArrays) {
+        int maxId = -1;
+        for (int[] ids : idArrays) {
+            for (int id : ids) {
+                maxId = Math.max(maxId, id);
+            }
+        }
+        if (maxId < 0) {
+            return EMPTY;
+        }
+
+        long[] words = new long[(maxId >> 6) + 1];
+        for (int[] ids : idArrays) {
+            for (int id : ids) {
+                if (id >= 0) {
+                    words[id >> 6] |= 1L << id;
+                }
+            }
+        }
+        return new IdBitSet(words);
+    }
+
+    public boolean contains(int id) {
+        int word = id >> 6;
+        return id >= 0 && word < words.length && (words[word] & (1L << id)) != 0;
+    }
+
+    public boolean isEmpty() {
+        return words.length == 0;
+    }
+}
@@ -0,0 +1,187 @@
+package com.pvmkits.core;
+
+import java.util.Arrays;
+
+/**
+ * Dense per-NPC state store keyed by NPC index. Each tracked NPC owns a row
+ * (slot) and every piece of state is a primitive int column, so reading or
+ * updating state never boxes or hashes. Rows are packed at the front of the
+ * columns, so iterating all tracked NPCs is a tight loop over 0..size().
+ *
+ * Clearing is O(1): the table bumps a generation counter and every index
+ * stamped with an older generation is treated as untracked. The NPC index
+ * lookup grows with the highest index tracked rather than covering every
+ * possible index up front.
+ */
+public class NpcStateTable {
+
+    // NPC indices are bounded by the size of the client's NPC array
+    public static final int MAX_NPC_INDEX = 65536;
+
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int INITIAL_INDEX_CAPACITY = 64;
+
+    // Index entries pack (generation << 16) | slot
+    private static final int SLOT_BITS = 16;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int MAX_GENERATION = (1 << (32 - SLOT_BITS)) - 1;
+
+    private final int[] defaults;
+
+    // columns[column][slot]
+    private final int[][] columns;
+
+    // slot -> NPC index
+    private int[] npcIndexBySlot = new int[INITIAL_CAPACITY];
+
+    // NPC index -> packed generation and slot
+    private int[] entryByNpcIndex = new int[0];
+
+    private int generation = 1;
+    private int size;
+
+    /**
+     * Create a table whose columns start at the given default values
+     */
+    public NpcStateTable(int... defaults) {
+        this.defaults = defaults.clone();
+        this.columns = new int[defaults.length][INITIAL_CAPACITY];
+    }
+
+    /**
+     * Get the slot of a tracked NPC, or -1 if it is not tracked
+     */
+    public int slotOf(int npcIndex) {
+        if (npcIndex < 0 || npcIndex >= entryByNpcIndex.length) {
+            return -1;
+        }
+
+        int entry = entryByNpcIndex[npcIndex];
+        if ((entry >>> SLOT_BITS) != generation) {
+            return -1;
+        }
+        return entry & SLOT_MASK;
+    }
+
+    public boolean contains(int npcIndex) {
+        return slotOf(npcIndex) >= 0;
+    }
+
+    /**
+     * Get the slot of an NPC, adding a row with default values if it is not
+     * tracked yet
+     */
+    public int track(int npcIndex) {
+        int slot = slotOf(npcIndex);
+        if (slot >= 0) {
+            return slot;
+        }
+
+        if (npcIndex < 0 || npcIndex >= MAX_NPC_INDEX) {
+            throw new IllegalArgumentException("NPC index out of range: " + npcIndex);
+        }
+        entryByNpcIndex = ensureIndexCapacity(entryByNpcIndex, npcIndex);
+
+        slot = size++;
+        ensureCapacity(size);
+        npcIndexBySlot[slot] = npcIndex;
+        for (int column = 0; column < columns.length; column++) {
+            columns[column][slot] = defaults[column];
+        }
+        entryByNpcIndex[npcIndex] = (generation << SLOT_BITS) | slot;
+        return slot;
+    }
+
+    /**
+     * Stop tracking an NPC. The last row is moved into the freed slot, so slots
+     * of other NPCs may change.
+     */
+    public void remove(int npcIndex) {
+        int slot = slotOf(npcIndex);
+        if (slot < 0) {
+            return;
+        }
+
+        int last = --size;
+        if (slot != last) {
+            int movedNpcIndex = npcIndexBySlot[last];
+            npcIndexBySlot[slot] = movedNpcIndex;
+            for (int[] column : columns) {
+                column[slot] = column[last];
+            }
+            entryByNpcIndex[movedNpcIndex] = (generation << SLOT_BITS) | slot;
+        }
+        entryByNpcIndex[npcIndex] = 0;
+    }
+
+    /**
+     * Forget every tracked NPC in O(1)
+     */
+    public void clear() {
+        size = 0;
+        if (++generation > MAX_GENERATION) {
+            // Stamps are about to repeat, so wipe them once and start over
+            Arrays.fill(entryByNpcIndex, 0);
+            generation = 1;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getNpcIndex(int slot) {
+        return npcIndexBySlot[slot];
+    }
+
+    public int get(int slot, int column) {
+        return columns[column][slot];
+    }
+
+    public void set(int slot, int column, int value) {
+        columns[column][slot] = value;
+    }
+
+    /**
+     * Read a column for an NPC index, falling back to the given value if the
+     * NPC is not tracked
+     */
+    public int getOrDefault(int npcIndex, int column, int defaultValue) {
+        int slot = slotOf(npcIndex);
+        return slot >= 0 ? columns[column][slot] : defaultValue;
+    }
+
+    /**
+     * Grow a table indexed by NPC index, such as a lookup of positions by
+     * index, so it covers the given index (below {@link #MAX_NPC_INDEX}).
+     * Doubles the table, so it ends up sized to the highest index seen rather
+     * than to every possible index; new entries are 0.
+     */
+    static int[] ensureIndexCapacity(int[] table, int npcIndex) {
+        if (npcIndex < table.length) {
+            return table;
+        }
+
+        int length = Math.max(INITIAL_INDEX_CAPACITY, table.length);
+        while (length <= npcIndex) {
+            length <<= 1;
+        }
+        return Arrays.copyOf(table, Math.min(length, MAX_NPC_INDEX));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= npcIndexBySlot.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, npcIndexBySlot.length * 2);
+        npcIndexBySlot = Arrays.copyOf(npcIndexBySlot, newCapacity);
+        for (int column = 0; column < columns.length; column++) {
+            columns[column] = Arrays.copyOf(columns[column], newCapacity);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.pvmkits.core;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressed map from packed tile keys ({@link #pack(int, int, int)}) to
+ * ints, held in primitive arrays. Lookups neither allocate nor hash a
+ * WorldPoint. Removal shifts the rest of the probe run back, so there are no
+ * tombstones and lookups stay short under churn. Grows to stay at most half
+ * full.
+ */
+public class PackedTileMap {
+
+    /**
+     * Returned by lookups of absent keys
+     */
+    public static final int NO_VALUE = Integer.MIN_VALUE;
+
+    private static final long NO_KEY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * Create a map sized for the given number of tiles without growing
+     */
+    public PackedTileMap(int expectedTiles) {
+        allocate(Integer.highestOneBit(Math.max(1, expectedTiles * 2 - 1)) << 1);
+    }
+
+    /**
+     * Pack a tile into a key: 20 bits each for x and y, then the plane
+     */
+    public static long pack(int x, int y, int plane) {
+        return ((long) plane << 40) | ((long) (x & 0xFFFFF) << 20) | (y & 0xFFFFF);
+    }
+
+    public int get(long key) {
+        for (int slot = hash(key); keys[slot] != NO_KEY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return NO_VALUE;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != NO_VALUE;
+    }
+
+    /**
+     * Set the value of a key, adding it if needed
+     */
+    public void put(long key, int value) {
+        int slot = hash(key);
+        while (keys[slot] != NO_KEY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    /**
+     * Add to the value of a key (absent keys count as 0), removing the key
+     * once it reaches 0. Returns the new value.
+     */
+    public int add(long key, int delta) {
+        int value = get(key);
+        int updated = (value == NO_VALUE ? 0 : value) + delta;
+        if (updated == 0) {
+            remove(key);
+        } else {
+            put(key, updated);
+        }
+        return updated;
+    }
+
+    /**
+     * Remove a key. Returns its value, or {@link #NO_VALUE} if it was absent.
+     */
+    public int remove(long key) {
+        int gap = hash(key);
+        while (keys[gap] != key) {
+            if (keys[gap] == NO_KEY) {
+                return NO_VALUE;
+            }
+            gap = (gap + 1) & mask;
+        }
+        int value = values[gap];
+
+        // Shift later entries of the probe run back into the gap
+        for (int slot = (gap + 1) & mask; keys[slot] != NO_KEY; slot = (slot + 1) & mask) {
+            int home = hash(keys[slot]);
+            // Move the entry unless its home lies cyclically within (gap, slot]
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        keys[gap] = NO_KEY;
+        size--;
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, NO_KEY);
+        size = 0;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, NO_KEY);
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != NO_KEY) {
+                int slot = hash(oldKeys[i]);
+                while (keys[slot] != NO_KEY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+}
@@ -0,0 +1,76 @@
+package com.pvmkits.core;
+
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Owns the latency histograms for plugin entry points and overlay renders.
+ * Timing is only taken while enabled (tied to the debug info config), so
+ * instrumented code pays a single field read otherwise.
+ *
+ * Usage: {@code long start = monitor.start(); ... monitor.stop(histogram, start);}
+ */
+@Singleton
+public class PerformanceMonitor {
+
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private final List<LatencyHistogram> histograms = new ArrayList<>();
+    private final List<LatencyHistogram> histogramsView = Collections.unmodifiableList(histograms);
+    private boolean enabled;
+
+    /**
+     * Get the histogram with the given name, creating it on first use
+     */
+    public LatencyHistogram histogram(String name) {
+        for (LatencyHistogram histogram : histograms) {
+            if (histogram.getName().equals(name)) {
+                return histogram;
+            }
+        }
+
+        LatencyHistogram histogram = new LatencyHistogram(name);
+        histograms.add(histogram);
+        return histogram;
+    }
+
+    public List<LatencyHistogram> getHistograms() {
+        return histogramsView;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start or stop timing. Enabling starts from empty histograms.
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            reset();
+        }
+        this.enabled = enabled;
+    }
+
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    public long start() {
+        return enabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Record the time since {@code start} into the histogram, if timing was on
+     * when it started. A null histogram is ignored.
+     */
+    public void stop(LatencyHistogram histogram, long start) {
+        if (start != NOT_TIMED && histogram != null) {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+}
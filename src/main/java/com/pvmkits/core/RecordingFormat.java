@@ -0,0 +1,83 @@
+package com.pvmkits.core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Layout of the binary fight recordings written by {@link EventRecorder}.
+ *
+ * A file starts with {@link #MAGIC} and {@link #VERSION}, followed by
+ * records. Each record is a type byte and varint fields:
+ *
+ * <pre>
+ * TICK              tick delta, npc count, then per npc:
+ *                   index, id, zigzag dx, zigzag dy, animation + 1, graphic + 1
+ * ANIMATION         npc index, animation + 1
+ * GRAPHIC           npc index, graphic + 1
+ * OBJECT_SPAWNED    object id, zigzag dx, zigzag dy, plane
+ * OBJECT_DESPAWNED  object id, zigzag dx, zigzag dy, plane
+ * NPC_SPAWNED       npc index, id
+ * NPC_DESPAWNED     npc index
+ * </pre>
+ *
+ * NPC positions are local coordinates relative to the last position recorded
+ * for the same NPC index (0, 0 initially). Object positions are world
+ * coordinates relative to the previous object record. IDs are stored + 1 so
+ * -1 fits a varint.
+ *
+ * NPC spawn and despawn records cover every NPC, not only the boss's, and a
+ * recording starts with a spawn record for each NPC already in the scene. An
+ * NPC changing ID is a despawn followed by a spawn with the new ID.
+ */
+public final class RecordingFormat {
+
+    public static final int MAGIC = 0x50564D52; // "PVMR"
+    public static final int VERSION = 1;
+
+    public static final int TICK = 1;
+    public static final int ANIMATION = 2;
+    public static final int GRAPHIC = 3;
+    public static final int OBJECT_SPAWNED = 4;
+    public static final int OBJECT_DESPAWNED = 5;
+    public static final int NPC_SPAWNED = 6;
+    public static final int NPC_DESPAWNED = 7;
+
+    private RecordingFormat() {
+    }
+
+    /**
+     * Write an unsigned LEB128 varint
+     */
+    public static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    public static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * Write a signed value so small magnitudes of either sign stay small
+     */
+    public static void writeZigZag(DataOutput out, int value) throws IOException {
+        writeVarInt(out, (value << 1) ^ (value >> 31));
+    }
+
+    public static int readZigZag(DataInput in) throws IOException {
+        int value = readVarInt(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
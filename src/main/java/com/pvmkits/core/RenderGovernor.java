@@ -0,0 +1,171 @@
+package com.pvmkits.core;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps one overlay's render time within a per-frame budget by stepping down
+ * through {@link Quality} levels while the smoothed frame time is over budget,
+ * and back up once it has had headroom for a while. Attack timers and phase
+ * colored borders are drawn at every level, only extras are dropped.
+ *
+ * Usage: {@code long start = governor.beginFrame(); ... governor.endFrame(start);}
+ */
+@Slf4j
+public class RenderGovernor {
+
+    /**
+     * Render quality levels, from everything drawn to the cheapest level that
+     * still shows timers and phase colors
+     */
+    public enum Quality {
+        FULL,
+        NO_HULLS,
+        NO_FILLS,
+        BORDERS_ONLY,
+        TICK_ONLY;
+
+        /** Convex hull outlines around NPCs */
+        public boolean drawsHulls() {
+            return this == FULL;
+        }
+
+        /** Translucent fills of secondary highlights (spore zones, sleepwalker tiles) */
+        public boolean drawsHighlightFills() {
+            return compareTo(NO_HULLS) <= 0;
+        }
+
+        /** Translucent phase color fill under the boss */
+        public boolean drawsPhaseFills() {
+            return compareTo(NO_FILLS) <= 0;
+        }
+
+        /** Wide strokes for secondary highlight borders, 1px otherwise */
+        public boolean drawsThickStrokes() {
+            return compareTo(NO_FILLS) <= 0;
+        }
+
+        /**
+         * Redraw and reproject every frame; otherwise only once per game tick,
+         * drawing the image retained from that tick on the frames in between
+         */
+        public boolean redrawsEveryFrame() {
+            return this != TICK_ONLY;
+        }
+    }
+
+    private static final Quality[] LEVELS = Quality.values();
+
+    // Frames the smoothed time must stay over budget before stepping down
+    private static final int FRAMES_TO_STEP_DOWN = 15;
+    // Frames under half the budget before stepping up (about 3s at 60 fps),
+    // doubled each time a step up had to be undone
+    private static final int FRAMES_TO_STEP_UP = 180;
+    private static final int MAX_FRAMES_TO_STEP_UP = FRAMES_TO_STEP_UP * 16;
+    // Weight of a new sample in the smoothed frame time, as a shift (1/8)
+    private static final int SMOOTHING_SHIFT = 3;
+
+    private final String name;
+    private long budgetNanos;
+    private Quality quality = Quality.FULL;
+
+    private long smoothedNanos;
+    private int framesOverBudget;
+    private int framesWithHeadroom;
+    private int framesToStepUp = FRAMES_TO_STEP_UP;
+    private boolean lastStepWasUp;
+    private int lastProjectedTick = -1;
+
+    public RenderGovernor(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Set the per-frame budget in microseconds; 0 disables the governor and
+     * renders at full quality
+     */
+    public void setBudgetMicros(int budgetMicros) {
+        long budgetNanos = Math.max(0, budgetMicros) * 1000L;
+        if (budgetNanos != this.budgetNanos) {
+            this.budgetNanos = budgetNanos;
+            reset();
+        }
+    }
+
+    public Quality getQuality() {
+        return quality;
+    }
+
+    /**
+     * Start timing a frame. Returns the start time to hand to
+     * {@link #endFrame(long)}.
+     */
+    public long beginFrame() {
+        return budgetNanos > 0 ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Whether cached screen geometry should be refreshed this frame: always
+     * above {@link Quality#TICK_ONLY}, at most once per game tick otherwise
+     */
+    public boolean shouldReproject(int tick) {
+        if (quality.redrawsEveryFrame() || tick != lastProjectedTick) {
+            lastProjectedTick = tick;
+            return true;
+        }
+        return false;
+    }
+
+    public void endFrame(long start) {
+        if (budgetNanos <= 0) {
+            return;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        smoothedNanos += (elapsed - smoothedNanos) >> SMOOTHING_SHIFT;
+
+        if (smoothedNanos > budgetNanos) {
+            framesWithHeadroom = 0;
+            if (++framesOverBudget >= FRAMES_TO_STEP_DOWN && quality.ordinal() < LEVELS.length - 1) {
+                if (lastStepWasUp) {
+                    // The previous level did not fit after all, wait longer before retrying it
+                    framesToStepUp = Math.min(framesToStepUp * 2, MAX_FRAMES_TO_STEP_UP);
+                }
+                setQuality(LEVELS[quality.ordinal() + 1], false);
+            }
+        } else if (smoothedNanos < budgetNanos / 2) {
+            framesOverBudget = 0;
+            if (++framesWithHeadroom >= framesToStepUp && quality.ordinal() > 0) {
+                setQuality(LEVELS[quality.ordinal() - 1], true);
+                if (quality == Quality.FULL) {
+                    framesToStepUp = FRAMES_TO_STEP_UP;
+                }
+            }
+        } else {
+            // Within budget but without headroom, stay at this level
+            framesOverBudget = 0;
+            framesWithHeadroom = 0;
+        }
+    }
+
+    /**
+     * Return to full quality and forget the measured frame times
+     */
+    public void reset() {
+        quality = Quality.FULL;
+        smoothedNanos = 0;
+        framesOverBudget = 0;
+        framesWithHeadroom = 0;
+        framesToStepUp = FRAMES_TO_STEP_UP;
+        lastStepWasUp = false;
+        lastProjectedTick = -1;
+    }
+
+    private void setQuality(Quality quality, boolean up) {
+        log.debug("{} render quality {} -> {} ({} us per frame)", name, this.quality, quality,
+                smoothedNanos / 1000);
+        this.quality = quality;
+        lastStepWasUp = up;
+        framesOverBudget = 0;
+        framesWithHeadroom = 0;
+    }
+}
@@ -0,0 +1,88 @@
+package com.pvmkits.core;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * Canvas-sized translucent image an overlay draws into once and then blits
+ * for as long as what it shows stays the same. Boss state changes at most
+ * once per tick, so with a still camera most client frames are a single
+ * image draw.
+ *
+ * The overlay describes its content with a signature (see
+ * {@link #mix(long, int)}) of everything that moves its shapes: the published
+ * tick, camera version, render quality and NPC positions. The layer is only
+ * redrawn when the signature or the canvas size changes.
+ *
+ * Overlays also fall back to a layer keyed by the tick alone when their
+ * {@link RenderGovernor} reaches {@link RenderGovernor.Quality#TICK_ONLY},
+ * whether retained overlays are on or not.
+ */
+public class RetainedLayer {
+
+    // Seed for content signatures
+    public static final long EMPTY_SIGNATURE = 0xcbf29ce484222325L;
+
+    private BufferedImage image;
+    private long signature;
+    private boolean valid;
+
+    /**
+     * Add a value to a content signature
+     */
+    public static long mix(long signature, int value) {
+        long hash = (signature ^ value) * 0x100000001b3L;
+        return hash ^ (hash >>> 29);
+    }
+
+    /**
+     * Get a graphics to redraw the layer into, cleared and with the target's
+     * rendering hints, or null if the layer already holds this content and can
+     * be drawn as is. The caller must dispose the returned graphics.
+     */
+    public Graphics2D redraw(Graphics2D target, int width, int height, long signature) {
+        if (valid && this.signature == signature && image.getWidth() == width && image.getHeight() == height) {
+            return null;
+        }
+
+        if (image == null || image.getWidth() != width || image.getHeight() != height) {
+            image = target.getDeviceConfiguration().createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+
+        Graphics2D graphics = image.createGraphics();
+        graphics.setComposite(AlphaComposite.Clear);
+        graphics.fillRect(0, 0, width, height);
+        graphics.setComposite(AlphaComposite.SrcOver);
+        graphics.setRenderingHints(target.getRenderingHints());
+
+        this.signature = signature;
+        valid = true;
+        return graphics;
+    }
+
+    /**
+     * Draw the layer onto the canvas
+     */
+    public void draw(Graphics2D target) {
+        if (valid) {
+            target.drawImage(image, 0, 0, null);
+        }
+    }
+
+    /**
+     * Force a redraw on the next frame, e.g. after a settings change
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Drop the image while the overlay draws straight to the canvas
+     */
+    public void release() {
+        image = null;
+        valid = false;
+    }
+}
@@ -0,0 +1,151 @@
+package com.pvmkits.core;
+
+import net.runelite.api.Client;
+import net.runelite.api.NPC;
+
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-tick view of the NPCs relevant to the active boss, bucketed by group.
+ * Built with a single pass over the world view each game tick and shared by
+ * every handler and overlay, so nothing else needs to scan the NPC list.
+ */
+@Singleton
+public class SceneSnapshot {
+
+    /**
+     * NPC groups a boss handler can ask to have bucketed
+     */
+    public enum Group {
+        BOSS,
+        SLEEPWALKER,
+        HUSK
+    }
+
+    private static final Group[] GROUPS = Group.values();
+
+    // NPC ID -> group ordinal + 1 (0 means the NPC is not tracked)
+    private byte[] groupByNpcId = new byte[0];
+
+    // Reused buckets, cleared and refilled every tick
+    private final Map<Group, ArrayList<NPC>> npcsByGroup = new EnumMap<>(Group.class);
+
+    // Read-only views handed out to handlers and overlays (created once)
+    private final Map<Group, List<NPC>> npcViewsByGroup = new EnumMap<>(Group.class);
+
+    private BossHandler boundHandler;
+
+    public SceneSnapshot() {
+        for (Group group : GROUPS) {
+            ArrayList<NPC> npcs = new ArrayList<>();
+            npcsByGroup.put(group, npcs);
+            npcViewsByGroup.put(group, Collections.unmodifiableList(npcs));
+        }
+    }
+
+    /**
+     * Bucket the NPC IDs declared by the given handler. Passing null stops
+     * tracking entirely.
+     */
+    public void bind(BossHandler handler) {
+        boundHandler = handler;
+        clear();
+        Arrays.fill(groupByNpcId, (byte) 0);
+
+        if (handler == null) {
+            return;
+        }
+
+        for (Group group : GROUPS) {
+            for (int npcId : handler.getSceneNpcIds(group)) {
+                if (npcId >= groupByNpcId.length) {
+                    groupByNpcId = Arrays.copyOf(groupByNpcId, npcId + 1);
+                }
+                groupByNpcId[npcId] = (byte) (group.ordinal() + 1);
+            }
+        }
+    }
+
+    /**
+     * Rebuild all buckets with one pass over the world view. Called once per
+     * game tick.
+     */
+    public void update(Client client) {
+        clear();
+        if (boundHandler == null) {
+            return;
+        }
+
+        for (NPC npc : client.getTopLevelWorldView().npcs()) {
+            if (npc == null) {
+                continue;
+            }
+
+            Group group = getGroup(npc.getId());
+            if (group != null) {
+                npcsByGroup.get(group).add(npc);
+            }
+        }
+    }
+
+    /**
+     * Add a freshly spawned NPC so it is visible before the next tick
+     */
+    public void npcSpawned(NPC npc) {
+        Group group = getGroup(npc.getId());
+        if (group == null) {
+            return;
+        }
+
+        ArrayList<NPC> npcs = npcsByGroup.get(group);
+        if (!npcs.contains(npc)) {
+            npcs.add(npc);
+        }
+    }
+
+    /**
+     * Drop a despawned NPC so overlays do not render it until the next tick
+     */
+    public void npcDespawned(NPC npc) {
+        for (ArrayList<NPC> npcs : npcsByGroup.values()) {
+            npcs.remove(npc);
+        }
+    }
+
+    public void clear() {
+        for (ArrayList<NPC> npcs : npcsByGroup.values()) {
+            npcs.clear();
+        }
+    }
+
+    /**
+     * Get the NPCs currently in the given group. The returned list is a live
+     * read-only view and must not be held across ticks.
+     */
+    public List<NPC> getNpcs(Group group) {
+        return npcViewsByGroup.get(group);
+    }
+
+    /**
+     * Get the first NPC in the given group, or null if there is none
+     */
+    public NPC getFirstNpc(Group group) {
+        List<NPC> npcs = npcsByGroup.get(group);
+        return npcs.isEmpty() ? null : npcs.get(0);
+    }
+
+    private Group getGroup(int npcId) {
+        if (npcId < 0 || npcId >= groupByNpcId.length) {
+            return null;
+        }
+
+        int slot = groupByNpcId[npcId];
+        return slot == 0 ? null : GROUPS[slot - 1];
+    }
+}
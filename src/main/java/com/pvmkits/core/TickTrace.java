@@ -0,0 +1,104 @@
+package com.pvmkits.core;
+
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Preallocated ring buffer of fixed-width trace records (tick, NPC index,
+ * event kind, id) for hot-path diagnostics. Recording is a few array stores;
+ * records are only turned into text when a dump is requested.
+ */
+@Singleton
+public class TickTrace {
+
+    /**
+     * Kinds of traced events. The meaning of the id field depends on the kind.
+     */
+    public enum Kind {
+        TICK("boss npcs"),
+        ANIMATION("animation"),
+        GRAPHIC("graphic"),
+        ATTACK("timer"),
+        ATTACK_IGNORED("cooldown until"),
+        TIMER_INIT("timer"),
+        ATTACK_OVERDUE("deadline"),
+        PHASE_TRANSITION("count"),
+        CURSE("attacks left"),
+        SPORE_SPAWNED("object"),
+        SPORE_DESPAWNED("object"),
+        SPORE_OVERFLOW("tracked");
+
+        private final String idLabel;
+
+        Kind(String idLabel) {
+            this.idLabel = idLabel;
+        }
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+
+    // Must be a power of two
+    private static final int CAPACITY = 4096;
+    private static final int MASK = CAPACITY - 1;
+
+    // Record layout: tick, npc index, kind ordinal, id
+    private static final int RECORD_WIDTH = 4;
+
+    private final int[] records = new int[CAPACITY * RECORD_WIDTH];
+
+    // Total records written; the oldest are overwritten once this exceeds CAPACITY
+    private long written;
+
+    private int currentTick;
+
+    /**
+     * Set the tick stamped onto subsequent records
+     */
+    public void setTick(int tick) {
+        currentTick = tick;
+    }
+
+    public void record(Kind kind, int npcIndex, int id) {
+        int offset = (int) (written & MASK) * RECORD_WIDTH;
+        records[offset] = currentTick;
+        records[offset + 1] = npcIndex;
+        records[offset + 2] = kind.ordinal();
+        records[offset + 3] = id;
+        written++;
+    }
+
+    public void clear() {
+        written = 0;
+    }
+
+    /**
+     * Number of records currently held
+     */
+    public int size() {
+        return (int) Math.min(written, CAPACITY);
+    }
+
+    /**
+     * Format the most recent records, oldest first
+     */
+    public List<String> format(int maxRecords) {
+        int count = Math.min(maxRecords, size());
+        List<String> lines = new ArrayList<>(count);
+        for (long i = written - count; i < written; i++) {
+            int offset = (int) (i & MASK) * RECORD_WIDTH;
+            Kind kind = KINDS[records[offset + 2]];
+            int npcIndex = records[offset + 1];
+
+            StringBuilder line = new StringBuilder(48)
+                    .append("tick ").append(records[offset])
+                    .append(' ').append(kind.name());
+            if (npcIndex >= 0) {
+                line.append(" npc=").append(npcIndex);
+            }
+            line.append(' ').append(kind.idLabel).append('=').append(records[offset + 3]);
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,88 @@
+package com.pvmkits.core;
+
+import net.runelite.api.Client;
+import net.runelite.api.Perspective;
+import net.runelite.api.coords.LocalPoint;
+
+import javax.inject.Singleton;
+import java.awt.Polygon;
+
+/**
+ * Canvas polygons of the tiles projected during the current frame, keyed by
+ * packed local coordinate and shared by every overlay. Boss footprints, spore
+ * zone corners, add tiles and timer anchors that touch the same tile project
+ * it once per frame.
+ *
+ * {@link #beginFrame()} runs once per client frame (on BeforeRender, and when
+ * a boss becomes active) and forgets every tile in O(1). Returned polygons
+ * are shared for the rest of the frame; callers must not keep or modify
+ * them.
+ */
+@Singleton
+public class TileProjectionMemo {
+
+    // Power of two, kept at most half full
+    private static final int CAPACITY = 512;
+    private static final int MASK = CAPACITY - 1;
+    private static final int MAX_ENTRIES = CAPACITY / 2;
+
+    private final long[] keys = new long[CAPACITY];
+    private final int[] frames = new int[CAPACITY]; // Frame a slot was filled in, older slots are free
+    private final Polygon[] polygons = new Polygon[CAPACITY]; // null for tiles that are off screen
+    private int entryCount;
+
+    // Starts at 1 so zeroed slots are free
+    private int frame = 1;
+
+    /**
+     * Forget the tiles of the previous frame
+     */
+    public void beginFrame() {
+        frame++;
+        entryCount = 0;
+    }
+
+    /**
+     * Get the canvas polygon of the tile at the given local coordinates, or
+     * null if it is not on screen. Projects the tile at most once per frame.
+     */
+    @SuppressWarnings("deprecation") // Using deprecated LocalPoint constructor to match working example
+    public Polygon getTilePoly(Client client, int localX, int localY) {
+        long key = ((long) localX << 32) | (localY & 0xFFFFFFFFL);
+
+        int slot = (int) mix(key) & MASK;
+        while (frames[slot] == frame) {
+            if (keys[slot] == key) {
+                return polygons[slot];
+            }
+            slot = (slot + 1) & MASK;
+        }
+
+        Polygon polygon = Perspective.getCanvasTilePoly(client, new LocalPoint(localX, localY));
+        if (entryCount >= MAX_ENTRIES) {
+            // Full for this frame, project without remembering
+            return polygon;
+        }
+
+        keys[slot] = key;
+        frames[slot] = frame;
+        polygons[slot] = polygon;
+        entryCount++;
+        return polygon;
+    }
+
+    /**
+     * Get the canvas polygon of the tile at the given local point, or null if
+     * it is not on screen
+     */
+    public Polygon getTilePoly(Client client, LocalPoint point) {
+        return getTilePoly(client, point.getX(), point.getY());
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+}
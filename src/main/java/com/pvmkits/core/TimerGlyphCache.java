@@ -0,0 +1,124 @@
+package com.pvmkits.core;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Pre-rendered attack timer numbers. Each (value, color) is rasterized once,
+ * outline included, so drawing a timer is a single drawImage instead of up to
+ * nine drawString calls plus font metrics lookups.
+ *
+ * Call {@link #configure(Font, Color...)} whenever timer config changes; that
+ * drops every cached image.
+ */
+public class TimerGlyphCache {
+
+    // Attack cycles are at most a handful of ticks; larger values are drawn directly
+    private static final int MAX_CACHED_VALUE = 16;
+
+    // Outline offsets, matching the old eight-way drawString outline
+    private static final int[] OUTLINE_DX = {-1, 1, -1, 1, -1, 1, 0, 0};
+    private static final int[] OUTLINE_DY = {-1, -1, 1, 1, 0, 0, -1, 1};
+
+    private static final String[] VALUE_TEXT = new String[MAX_CACHED_VALUE + 1];
+
+    static {
+        for (int i = 0; i <= MAX_CACHED_VALUE; i++) {
+            VALUE_TEXT[i] = String.valueOf(i);
+        }
+    }
+
+    private final int outlineWidth;
+
+    private Font font;
+    private Color[] colors = new Color[0];
+    private BufferedImage[][] glyphs = new BufferedImage[0][];
+    private FontMetrics metrics;
+
+    /**
+     * @param outlineWidth width of the black outline in pixels, 0 for none
+     */
+    public TimerGlyphCache(int outlineWidth) {
+        this.outlineWidth = outlineWidth;
+    }
+
+    /**
+     * Set the font and the colors timers are drawn in, dropping every cached
+     * image. Colors are referred to by index in {@link #draw}.
+     */
+    public void configure(Font font, Color... colors) {
+        this.font = font;
+        this.colors = colors.clone();
+        this.glyphs = new BufferedImage[colors.length][MAX_CACHED_VALUE + 1];
+
+        // Metrics depend only on the font, so look them up once
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scratch.createGraphics();
+        metrics = g.getFontMetrics(font);
+        g.dispose();
+    }
+
+    /**
+     * Draw a timer value centered horizontally on {@code centerX}, with the
+     * baseline a quarter of the text height below {@code centerY}
+     */
+    public void draw(Graphics2D graphics, int value, int colorIndex, int centerX, int centerY) {
+        if (metrics == null) {
+            return;
+        }
+
+        int textHeight = metrics.getHeight();
+        int baseline = centerY + (textHeight / 4);
+
+        if (value < 0 || value > MAX_CACHED_VALUE) {
+            // Not worth caching, draw it the slow way
+            String text = String.valueOf(value);
+            int textX = centerX - (metrics.stringWidth(text) / 2);
+            graphics.setFont(font);
+            drawText(graphics, text, colors[colorIndex], textX, baseline);
+            return;
+        }
+
+        BufferedImage glyph = glyphs[colorIndex][value];
+        if (glyph == null) {
+            glyph = rasterize(VALUE_TEXT[value], colors[colorIndex]);
+            glyphs[colorIndex][value] = glyph;
+        }
+
+        int textWidth = glyph.getWidth() - (2 * outlineWidth);
+        int x = centerX - (textWidth / 2) - outlineWidth;
+        int y = baseline - metrics.getAscent() - outlineWidth;
+        graphics.drawImage(glyph, x, y, null);
+    }
+
+    private BufferedImage rasterize(String text, Color color) {
+        int width = metrics.stringWidth(text) + (2 * outlineWidth);
+        int height = metrics.getAscent() + metrics.getDescent() + (2 * outlineWidth);
+
+        BufferedImage image = new BufferedImage(Math.max(1, width), Math.max(1, height),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setFont(font);
+        drawText(g, text, color, outlineWidth, outlineWidth + metrics.getAscent());
+        g.dispose();
+        return image;
+    }
+
+    private void drawText(Graphics2D graphics, String text, Color color, int x, int y) {
+        if (outlineWidth > 0) {
+            // Draw outline for visibility
+            graphics.setColor(Color.BLACK);
+            for (int i = 0; i < OUTLINE_DX.length; i++) {
+                graphics.drawString(text, x + (OUTLINE_DX[i] * outlineWidth), y + (OUTLINE_DY[i] * outlineWidth));
+            }
+        }
+
+        graphics.setColor(color);
+        graphics.drawString(text, x, y);
+    }
+}
@@ -0,0 +1,105 @@
+package com.pvmkits.core;
+
+import net.runelite.api.NPC;
+
+import java.util.Arrays;
+
+/**
+ * Live set of NPCs maintained from spawn and despawn events, so overlays can
+ * iterate exactly the tracked NPCs without scanning the world view. Members
+ * are packed at the front of an array (iterate {@code get(0..size())}) and
+ * located by NPC index, so adding and removing are O(1).
+ */
+public class TrackedNpcSet {
+
+    private NPC[] npcs = new NPC[8];
+    private int size;
+
+    // NPC index -> position + 1, 0 when not tracked; grows with the highest index added
+    private int[] positionByIndex = new int[0];
+
+    /**
+     * Add an NPC, replacing any other NPC tracked under the same index.
+     * Returns true if the set changed.
+     */
+    public boolean add(NPC npc) {
+        int index = npc.getIndex();
+        if (index < 0 || index >= NpcStateTable.MAX_NPC_INDEX) {
+            return false;
+        }
+        positionByIndex = NpcStateTable.ensureIndexCapacity(positionByIndex, index);
+
+        int position = positionByIndex[index] - 1;
+        if (position >= 0) {
+            if (npcs[position] == npc) {
+                return false;
+            }
+            // The index was reused before the old NPC's despawn reached us
+            npcs[position] = npc;
+            return true;
+        }
+
+        if (size == npcs.length) {
+            npcs = Arrays.copyOf(npcs, size * 2);
+        }
+        npcs[size] = npc;
+        positionByIndex[index] = ++size;
+        return true;
+    }
+
+    /**
+     * Remove an NPC if it is tracked. The last member is moved into its place.
+     * Returns true if the set changed.
+     */
+    public boolean remove(NPC npc) {
+        int index = npc.getIndex();
+        if (index < 0 || index >= positionByIndex.length) {
+            return false;
+        }
+
+        int position = positionByIndex[index] - 1;
+        if (position < 0 || npcs[position] != npc) {
+            return false;
+        }
+
+        int last = --size;
+        if (position != last) {
+            NPC moved = npcs[last];
+            npcs[position] = moved;
+            positionByIndex[moved.getIndex()] = position + 1;
+        }
+        npcs[last] = null;
+        positionByIndex[index] = 0;
+        return true;
+    }
+
+    public boolean contains(NPC npc) {
+        int index = npc.getIndex();
+        if (index < 0 || index >= positionByIndex.length) {
+            return false;
+        }
+
+        int position = positionByIndex[index] - 1;
+        return position >= 0 && npcs[position] == npc;
+    }
+
+    public NPC get(int i) {
+        return npcs[i];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positionByIndex[npcs[i].getIndex()] = 0;
+            npcs[i] = null;
+        }
+        size = 0;
+    }
+}
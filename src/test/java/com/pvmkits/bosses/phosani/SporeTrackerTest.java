@@ -0,0 +1,175 @@
+package com.pvmkits.bosses.phosani;
+
+import com.pvmkits.core.TickTrace;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SporeTrackerTest {
+
+    private static final int CAPACITY = 64;
+    private static final int LIFETIME = 16;
+    private static final int MARGIN = 50;
+    private static final int EXPIRY = LIFETIME + MARGIN;
+    private static final int PLANE = 3;
+
+    private final TickTrace tickTrace = new TickTrace();
+    private SporeTracker tracker;
+
+    @Before
+    public void setUp() {
+        tracker = new SporeTracker(CAPACITY, LIFETIME, MARGIN, 1, tickTrace);
+    }
+
+    @Test
+    public void missedDespawnExpiresAfterMargin() {
+        assertTrue(tracker.spawn(spore(3870, 9950), 100));
+
+        // The countdown ends on the expected lifetime, the zone stays
+        assertOrder(new int[] { 3870 }, new int[] { 100 + LIFETIME });
+        assertFalse(tracker.expire(100 + LIFETIME));
+        assertFalse(tracker.expire(100 + EXPIRY - 1));
+        assertEquals(1, tracker.size());
+
+        assertTrue(tracker.isDangerous(3871, 9951, PLANE));
+
+        assertTrue(tracker.expire(100 + EXPIRY));
+        assertTrue(tracker.isEmpty());
+        assertFalse(tracker.isDangerous(3871, 9951, PLANE));
+    }
+
+    @Test
+    public void despawnInMiddleThenExpiry() {
+        tracker.spawn(spore(10, 10), 100);
+        tracker.spawn(spore(20, 10), 101);
+        tracker.spawn(spore(30, 10), 102);
+
+        assertTrue(tracker.despawn(spore(20, 10)));
+        assertFalse(tracker.despawn(spore(20, 10)));
+        assertEquals(2, tracker.size());
+        assertFalse(tracker.isDangerous(20, 10, PLANE));
+        assertFalse(tracker.isDangerous(21, 10, PLANE));
+        assertTrue(tracker.isDangerous(11, 9, PLANE));
+        assertTrue(tracker.isDangerous(29, 11, PLANE));
+
+        assertOrder(new int[] { 10, 30 }, new int[] { 100 + LIFETIME, 102 + LIFETIME });
+
+        // The oldest expires, the hole it uncovers is skipped
+        assertTrue(tracker.expire(100 + EXPIRY));
+        assertEquals(1, tracker.size());
+        assertOrder(new int[] { 30 }, new int[] { 102 + LIFETIME });
+
+        assertFalse(tracker.expire(101 + EXPIRY));
+        assertEquals(1, tracker.size());
+
+        assertTrue(tracker.expire(102 + EXPIRY));
+        assertTrue(tracker.isEmpty());
+    }
+
+    @Test
+    public void overflowingWaveKeepsLiveZonesAndTraces() {
+        int overflow = 6;
+        for (int i = 0; i < CAPACITY + overflow; i++) {
+            tracker.spawn(spore(i * 2, 50), 200);
+        }
+        assertEquals(CAPACITY, tracker.size());
+
+        // Every zone tracked before the cap is kept, the rest are traced
+        List<WorldPoint> locations = tracker.snapshot(SporeZoneSnapshot.EMPTY).getLocations();
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(spore(i * 2, 50), locations.get(i));
+        }
+        List<String> trace = tickTrace.format(tickTrace.size());
+        assertEquals(overflow, trace.size());
+        assertTrue(tracker.isDangerous(0, 50, PLANE));
+        assertFalse(tracker.isDangerous(CAPACITY * 2 + 1, 50, PLANE));
+        for (String line : trace) {
+            assertTrue(line, line.endsWith(" SPORE_OVERFLOW tracked=" + CAPACITY));
+        }
+
+        // A despawn makes room again
+        assertTrue(tracker.despawn(spore(0, 50)));
+        assertTrue(tracker.spawn(spore(CAPACITY * 2, 50), 201));
+        assertEquals(CAPACITY, tracker.size());
+        assertEquals(overflow, tickTrace.size());
+    }
+
+    @Test
+    public void respawnOnTrackedTileRestartsLifetime() {
+        tracker.spawn(spore(10, 10), 100);
+        tracker.spawn(spore(20, 10), 105);
+
+        // The same spawn seen twice in one tick changes nothing
+        assertFalse(tracker.spawn(spore(10, 10), 100));
+
+        assertTrue(tracker.spawn(spore(10, 10), 110));
+        assertEquals(2, tracker.size());
+        assertOrder(new int[] { 20, 10 }, new int[] { 105 + LIFETIME, 110 + LIFETIME });
+
+        // Not expired at its first fallback expiry
+        assertTrue(tracker.expire(105 + EXPIRY));
+        assertOrder(new int[] { 10 }, new int[] { 110 + LIFETIME });
+
+        assertTrue(tracker.despawn(spore(10, 10)));
+        assertTrue(tracker.isEmpty());
+    }
+
+    @Test
+    public void fullRingWithHolesKeepsOrder() {
+        SporeTracker small = new SporeTracker(4, LIFETIME, MARGIN, 1, tickTrace);
+        small.spawn(spore(10, 10), 1);
+        small.spawn(spore(20, 10), 2);
+        small.spawn(spore(30, 10), 3);
+        small.spawn(spore(40, 10), 4);
+        small.despawn(spore(20, 10));
+
+        // The ring is used up to the end, the hole is closed to make room
+        assertTrue(small.spawn(spore(50, 10), 5));
+        assertEquals(4, small.size());
+        assertEquals(0, tickTrace.size());
+
+        SporeZoneSnapshot snapshot = small.snapshot(SporeZoneSnapshot.EMPTY);
+        assertEquals(Arrays.asList(spore(10, 10), spore(30, 10), spore(40, 10), spore(50, 10)),
+                snapshot.getLocations());
+
+        assertTrue(small.despawn(spore(30, 10)));
+        assertTrue(small.expire(1 + EXPIRY));
+        assertEquals(2, small.size());
+        assertEquals(Arrays.asList(spore(40, 10), spore(50, 10)),
+                small.snapshot(snapshot).getLocations());
+    }
+
+    @Test
+    public void clearForgetsEverything() {
+        tracker.spawn(spore(10, 10), 1);
+        tracker.spawn(spore(20, 10), 2);
+        tracker.clear();
+
+        assertTrue(tracker.isEmpty());
+        assertFalse(tracker.isDangerous(10, 10, PLANE));
+        assertFalse(tracker.despawn(spore(20, 10)));
+
+        assertTrue(tracker.spawn(spore(10, 10), 3));
+        assertOrder(new int[] { 10 }, new int[] { 3 + LIFETIME });
+    }
+
+    private void assertOrder(int[] xs, int[] expiryTicks) {
+        SporeZoneSnapshot snapshot = tracker.snapshot(SporeZoneSnapshot.EMPTY);
+        assertEquals(xs.length, snapshot.getLocations().size());
+        for (int i = 0; i < xs.length; i++) {
+            assertEquals(xs[i], snapshot.getLocations().get(i).getX());
+            assertEquals(expiryTicks[i], snapshot.getExpiryTick(i));
+        }
+    }
+
+    private static WorldPoint spore(int x, int y) {
+        return new WorldPoint(x, y, PLANE);
+    }
+}
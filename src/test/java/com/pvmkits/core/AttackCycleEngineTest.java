@@ -0,0 +1,241 @@
+package com.pvmkits.core;
+
+import com.pvmkits.bosses.phosani.PhosaniHandler.PhosaniPhase;
+import com.pvmkits.bosses.yama.YamaHandler.YamaPhase;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives the engine with Yama's and Phosani's attack cycles, one scripted
+ * tick at a time: animation and graphic events first, then the handler's
+ * per-tick initTimer and tick calls, as the client orders them. Ticks the
+ * script skips are still run, with no events. Decisions are checked through
+ * the {@link TickTrace} records they leave.
+ */
+public class AttackCycleEngineTest {
+
+    private static final int YAMA_INDEX = 12;
+    private static final int YAMA_MELEE_ORB = 12146;
+    private static final int YAMA_MAGE_ANIMATION = 12144;
+    private static final int YAMA_MAGE = 3246;
+    private static final int YAMA_RANGE = 3243;
+    private static final int YAMA_GLYPH = 3253;
+    private static final int YAMA_ENRAGE = 3276;
+
+    private static final AttackCycleDefinition YAMA = AttackCycleDefinition.builder("Yama")
+            .cycleTicks(8)
+            .cooldownTicks(6)
+            .defaultPhase(YamaPhase.UNKNOWN.ordinal())
+            .attackAnimations(YAMA_MELEE_ORB, YAMA_MAGE_ANIMATION)
+            .attackGraphics(YAMA_MAGE, YAMA_RANGE, YAMA_GLYPH)
+            .animationPhase(YAMA_MELEE_ORB, YamaPhase.MELEE.ordinal())
+            .graphicPhase(YAMA_MAGE, YamaPhase.MAGE.ordinal())
+            .graphicPhase(YAMA_RANGE, YamaPhase.RANGE.ordinal())
+            .graphicPhase(YAMA_GLYPH, YamaPhase.FIRE_SPECIAL.ordinal())
+            .enrage(YAMA_ENRAGE, 2, 7)
+            .build();
+
+    private static final int PHOSANI_INDEX = 40;
+    private static final int PHOSANI_MELEE = 8594;
+    private static final int PHOSANI_MAGE_ANIMATION = 8595;
+    private static final int PHOSANI_RANGE_ANIMATION = 8596;
+    private static final int PHOSANI_SPECIAL = 8597;
+    private static final int PHOSANI_MAGE = 1767;
+    private static final int PHOSANI_RANGE = 1768;
+    private static final int PHOSANI_SPECIAL_GRAPHIC = 1769;
+
+    private static final AttackCycleDefinition PHOSANI = AttackCycleDefinition.builder("Phosani")
+            .cycleTicks(6)
+            .cooldownTicks(6)
+            .defaultPhase(PhosaniPhase.UNKNOWN.ordinal())
+            .attackAnimations(PHOSANI_MELEE, PHOSANI_MAGE_ANIMATION, PHOSANI_RANGE_ANIMATION)
+            .attackGraphics(PHOSANI_MAGE, PHOSANI_RANGE, PHOSANI_SPECIAL_GRAPHIC)
+            .animationPhase(PHOSANI_MELEE, PhosaniPhase.MELEE.ordinal())
+            .animationPhase(PHOSANI_MAGE_ANIMATION, PhosaniPhase.MAGE.ordinal())
+            .animationPhase(PHOSANI_RANGE_ANIMATION, PhosaniPhase.RANGE.ordinal())
+            .animationPhase(PHOSANI_SPECIAL, PhosaniPhase.SPECIAL.ordinal())
+            .graphicPhase(PHOSANI_MAGE, PhosaniPhase.MAGE.ordinal())
+            .graphicPhase(PHOSANI_RANGE, PhosaniPhase.RANGE.ordinal())
+            .graphicPhase(PHOSANI_SPECIAL_GRAPHIC, PhosaniPhase.SPECIAL.ordinal())
+            .build();
+
+    private final TickTrace tickTrace = new TickTrace();
+    private AttackCycleEngine engine;
+    private int npcIndex;
+    private int slot;
+    private int lastTick;
+
+    @Test
+    public void yamaCycle() {
+        start(YAMA, YAMA_INDEX, 100);
+
+        endTick(100);
+        assertTimer(8);
+        assertPhase(YamaPhase.UNKNOWN);
+
+        endTick(101);
+        assertTimer(7);
+
+        // Melee and orb share an animation; the mage graphic the same tick
+        // decides the phase and both count as one attack
+        assertTrue(animation(102, YAMA_MELEE_ORB));
+        assertFalse(graphic(102, YAMA_MAGE));
+        endTick(102);
+        assertTimer(8);
+        assertPhase(YamaPhase.MAGE);
+
+        // Inside the 6 tick cooldown
+        assertFalse(animation(104, YAMA_MAGE_ANIMATION));
+        endTick(104);
+        assertTimer(6);
+        assertPhase(YamaPhase.MAGE);
+        assertTraced(TickTrace.Kind.ATTACK_IGNORED);
+
+        // The melee animation alone sets its own phase
+        assertTrue(animation(108, YAMA_MELEE_ORB));
+        endTick(108);
+        assertTimer(8);
+        assertPhase(YamaPhase.MELEE);
+
+        assertFalse(graphic(110, YAMA_ENRAGE));
+        endTick(110);
+        assertFalse(engine.isEnraged(YAMA_INDEX));
+
+        assertFalse(graphic(112, YAMA_ENRAGE));
+        endTick(112);
+        assertTrue(engine.isEnraged(YAMA_INDEX));
+        assertTimer(4);
+
+        // Enraged attacks use the faster cycle
+        assertTrue(graphic(116, YAMA_RANGE));
+        endTick(116);
+        assertTimer(7);
+        assertPhase(YamaPhase.RANGE);
+
+        // Missed attacks hold the timer at 1
+        endTick(130);
+        assertTimer(1);
+
+        // The late attack is traced against its deadline
+        assertTrue(animation(131, YAMA_MELEE_ORB));
+        endTick(131);
+        assertTimer(7);
+        assertTraced(TickTrace.Kind.ATTACK_OVERDUE);
+    }
+
+    @Test
+    public void phosaniCycle() {
+        start(PHOSANI, PHOSANI_INDEX, 10);
+
+        endTick(10);
+        assertTimer(6);
+        assertPhase(PhosaniPhase.UNKNOWN);
+
+        // The graphic phase wins over the animation phase of the same tick
+        assertTrue(animation(11, PHOSANI_MAGE_ANIMATION));
+        assertFalse(graphic(11, PHOSANI_RANGE));
+        endTick(11);
+        assertTimer(6);
+        assertPhase(PhosaniPhase.RANGE);
+
+        // The special sets the phase but is not an attack
+        assertFalse(animation(12, PHOSANI_SPECIAL));
+        endTick(12);
+        assertTimer(5);
+        assertPhase(PhosaniPhase.SPECIAL);
+
+        // Inside the cooldown the phase still follows the animation
+        assertFalse(animation(14, PHOSANI_MELEE));
+        endTick(14);
+        assertTimer(3);
+        assertPhase(PhosaniPhase.MELEE);
+
+        // The cooldown ends exactly cooldown.ticks after the attack
+        assertTrue(graphic(17, PHOSANI_MAGE));
+        endTick(17);
+        assertTimer(6);
+        assertPhase(PhosaniPhase.MAGE);
+
+        assertFalse(engine.isEnraged(PHOSANI_INDEX));
+    }
+
+    @Test
+    public void clearForgetsTimers() {
+        start(YAMA, YAMA_INDEX, 1);
+        endTick(1);
+        animation(3, YAMA_MELEE_ORB);
+        endTick(3);
+
+        engine.clear();
+        tickTrace.clear();
+
+        assertFalse(engine.isTracked(YAMA_INDEX));
+        assertEquals(8, engine.getAttackTimer(YAMA_INDEX));
+        assertEquals(YamaPhase.UNKNOWN.ordinal(), engine.getPhase(YAMA_INDEX));
+
+        // Nothing is left to count down
+        engine.tick(4);
+        assertEquals(0, tickTrace.size());
+    }
+
+    private void start(AttackCycleDefinition definition, int npcIndex, int firstTick) {
+        engine = new AttackCycleEngine(definition, tickTrace);
+        this.npcIndex = npcIndex;
+        slot = engine.track(npcIndex);
+        lastTick = firstTick - 1;
+    }
+
+    private boolean animation(int tick, int animationId) {
+        runTicksBefore(tick);
+        tickTrace.setTick(tick);
+        return engine.onAnimation(slot, animationId, tick);
+    }
+
+    private boolean graphic(int tick, int graphicId) {
+        runTicksBefore(tick);
+        tickTrace.setTick(tick);
+        return engine.onGraphic(slot, graphicId, tick);
+    }
+
+    private void endTick(int tick) {
+        runTicksBefore(tick);
+        runTick(tick);
+    }
+
+    // Ticks between the last one run and the given one pass without events
+    private void runTicksBefore(int tick) {
+        while (lastTick < tick - 1) {
+            runTick(lastTick + 1);
+        }
+    }
+
+    private void runTick(int tick) {
+        tickTrace.setTick(tick);
+        engine.initTimer(slot, tick);
+        engine.tick(tick);
+        lastTick = tick;
+    }
+
+    private void assertTimer(int expected) {
+        assertEquals(expected, engine.getAttackTimer(npcIndex));
+    }
+
+    private void assertPhase(Enum<?> expected) {
+        assertEquals(expected.ordinal(), engine.getPhase(npcIndex));
+    }
+
+    private void assertTraced(TickTrace.Kind kind) {
+        List<String> lines = tickTrace.format(tickTrace.size());
+        for (String line : lines) {
+            if (line.contains(" " + kind.name() + " ")) {
+                return;
+            }
+        }
+        throw new AssertionError("No " + kind + " record in " + lines);
+    }
+}
@@ -0,0 +1,100 @@
+package com.pvmkits.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HazardTilesTest {
+
+    private static final int PLANE = 1;
+
+    private HazardTiles hazards;
+
+    @Before
+    public void setUp() {
+        hazards = new HazardTiles(18);
+    }
+
+    @Test
+    public void coversSquareAroundCenter() {
+        hazards.add(10, 10, PLANE, 1);
+
+        for (int x = 9; x <= 11; x++) {
+            for (int y = 9; y <= 11; y++) {
+                assertTrue(hazards.isDangerous(x, y, PLANE));
+            }
+        }
+        assertFalse(hazards.isDangerous(12, 10, PLANE));
+        assertFalse(hazards.isDangerous(10, 8, PLANE));
+        assertFalse(hazards.isDangerous(10, 10, PLANE + 1));
+        assertTrue(hazards.isDangerous(11, 9, PLANE));
+    }
+
+    @Test
+    public void overlappingHazardsKeepSharedTilesDangerous() {
+        hazards.add(10, 10, PLANE, 1);
+        hazards.add(11, 11, PLANE, 1);
+
+        assertEquals(2, hazards.getCoverage(10, 10, PLANE));
+        assertEquals(2, hazards.getCoverage(11, 11, PLANE));
+        assertEquals(1, hazards.getCoverage(9, 9, PLANE));
+        assertEquals(1, hazards.getCoverage(12, 12, PLANE));
+
+        hazards.remove(10, 10, PLANE, 1);
+
+        // The four tiles both 3x3 areas share stay covered by the other one
+        for (int x = 10; x <= 11; x++) {
+            for (int y = 10; y <= 11; y++) {
+                assertTrue(hazards.isDangerous(x, y, PLANE));
+                assertEquals(1, hazards.getCoverage(x, y, PLANE));
+            }
+        }
+        assertFalse(hazards.isDangerous(9, 9, PLANE));
+        assertFalse(hazards.isDangerous(9, 11, PLANE));
+        assertFalse(hazards.isDangerous(11, 9, PLANE));
+        assertTrue(hazards.isDangerous(12, 12, PLANE));
+
+        hazards.remove(11, 11, PLANE, 1);
+        assertTrue(hazards.isEmpty());
+        assertEquals(0, hazards.getCoverage(11, 11, PLANE));
+    }
+
+    @Test
+    public void sameHazardTwiceNeedsTwoRemovals() {
+        hazards.add(5, 5, PLANE, 1);
+        hazards.add(5, 5, PLANE, 1);
+
+        hazards.remove(5, 5, PLANE, 1);
+        assertTrue(hazards.isDangerous(4, 6, PLANE));
+
+        hazards.remove(5, 5, PLANE, 1);
+        assertTrue(hazards.isEmpty());
+    }
+
+    @Test
+    public void hazardsAtTheOriginCoverNegativeTiles() {
+        hazards.add(0, 0, PLANE, 1);
+
+        assertTrue(hazards.isDangerous(-1, -1, PLANE));
+        assertTrue(hazards.isDangerous(1, -1, PLANE));
+        assertFalse(hazards.isDangerous(-2, 0, PLANE));
+        assertFalse(hazards.isDangerous(-1, -1, PLANE - 1));
+
+        hazards.remove(0, 0, PLANE, 1);
+        assertTrue(hazards.isEmpty());
+    }
+
+    @Test
+    public void clearDropsEveryHazard() {
+        hazards.add(10, 10, PLANE, 2);
+        hazards.add(30, 30, PLANE, 0);
+        hazards.clear();
+
+        assertTrue(hazards.isEmpty());
+        assertFalse(hazards.isDangerous(10, 10, PLANE));
+        assertFalse(hazards.isDangerous(30, 30, PLANE));
+    }
+}
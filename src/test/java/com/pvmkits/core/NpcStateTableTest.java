@@ -0,0 +1,146 @@
+package com.pvmkits.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NpcStateTableTest {
+
+    private static final int COL_VALUE = 0;
+    private static final int DEFAULT_VALUE = -7;
+
+    // Clears that bring the generation back to where it started, through the wipe
+    private static final int GENERATION_WRAP_CLEARS = 65535;
+
+    private NpcStateTable table;
+
+    @Before
+    public void setUp() {
+        table = new NpcStateTable(DEFAULT_VALUE);
+    }
+
+    @Test
+    public void trackAddsRowWithDefaults() {
+        int slot = table.track(42);
+
+        assertEquals(0, slot);
+        assertEquals(slot, table.track(42));
+        assertEquals(1, table.size());
+        assertEquals(42, table.getNpcIndex(slot));
+        assertEquals(DEFAULT_VALUE, table.get(slot, COL_VALUE));
+    }
+
+    @Test
+    public void lookupsAreStaleAfterClear() {
+        table.set(table.track(3), COL_VALUE, 30);
+        table.set(table.track(9), COL_VALUE, 90);
+
+        table.clear();
+
+        assertTrue(table.isEmpty());
+        assertEquals(-1, table.slotOf(3));
+        assertEquals(-1, table.slotOf(9));
+        assertFalse(table.contains(3));
+        assertEquals(DEFAULT_VALUE, table.getOrDefault(9, COL_VALUE, DEFAULT_VALUE));
+
+        // Re-tracking after a clear starts from the defaults, not the old row
+        int slot = table.track(9);
+        assertEquals(0, slot);
+        assertEquals(DEFAULT_VALUE, table.get(slot, COL_VALUE));
+        assertFalse(table.contains(3));
+    }
+
+    @Test
+    public void lookupsAreStaleAfterGenerationWrap() {
+        table.set(table.track(5), COL_VALUE, 50);
+        table.set(table.track(65535), COL_VALUE, 60);
+
+        for (int i = 0; i < GENERATION_WRAP_CLEARS; i++) {
+            table.clear();
+        }
+
+        // The generation is back to the one the NPCs were stamped with, so
+        // only the wipe keeps them untracked
+        assertFalse(table.contains(5));
+        assertFalse(table.contains(65535));
+        assertEquals(0, table.getOrDefault(5, COL_VALUE, 0));
+
+        int slot = table.track(65535);
+        assertEquals(0, slot);
+        assertEquals(DEFAULT_VALUE, table.get(slot, COL_VALUE));
+        assertFalse(table.contains(5));
+
+        table.clear();
+        assertFalse(table.contains(65535));
+    }
+
+    @Test
+    public void swapRemoveMovesLastRow() {
+        table.set(table.track(10), COL_VALUE, 100);
+        table.set(table.track(20), COL_VALUE, 200);
+        table.set(table.track(30), COL_VALUE, 300);
+
+        table.remove(10);
+
+        assertEquals(2, table.size());
+        assertFalse(table.contains(10));
+        assertEquals(-1, table.slotOf(10));
+
+        // The last row took over the freed slot and its index entry follows it
+        assertEquals(0, table.slotOf(30));
+        assertEquals(30, table.getNpcIndex(0));
+        assertEquals(300, table.get(0, COL_VALUE));
+        assertEquals(1, table.slotOf(20));
+        assertEquals(200, table.getOrDefault(20, COL_VALUE, 0));
+
+        // Removing again or removing an untracked NPC does nothing
+        table.remove(10);
+        table.remove(11);
+        assertEquals(2, table.size());
+
+        // A freshly tracked NPC gets the next slot, not the removed row's state
+        int slot = table.track(10);
+        assertEquals(2, slot);
+        assertEquals(DEFAULT_VALUE, table.get(slot, COL_VALUE));
+    }
+
+    @Test
+    public void removeLastRowLeavesOthers() {
+        table.track(1);
+        table.track(2);
+
+        table.remove(2);
+
+        assertEquals(1, table.size());
+        assertEquals(0, table.slotOf(1));
+        assertFalse(table.contains(2));
+    }
+
+    @Test
+    public void indexGrowsKeepingEntries() {
+        table.set(table.track(3), COL_VALUE, 30);
+        assertFalse(table.contains(1000));
+
+        table.set(table.track(1000), COL_VALUE, 1000);
+        table.set(table.track(40000), COL_VALUE, 40000);
+
+        assertEquals(30, table.getOrDefault(3, COL_VALUE, 0));
+        assertEquals(1000, table.getOrDefault(1000, COL_VALUE, 0));
+        assertEquals(40000, table.getOrDefault(40000, COL_VALUE, 0));
+        assertFalse(table.contains(999));
+    }
+
+    @Test
+    public void outOfRangeIndicesAreUntracked() {
+        assertEquals(-1, table.slotOf(-1));
+        assertEquals(-1, table.slotOf(NpcStateTable.MAX_NPC_INDEX));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void trackRejectsOutOfRangeIndex() {
+        table.track(NpcStateTable.MAX_NPC_INDEX);
+    }
+}
@@ -0,0 +1,150 @@
+package com.pvmkits.core;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PackedTileMapTest {
+
+    // new PackedTileMap(4) starts with 8 slots
+    private static final int SMALL_EXPECTED = 4;
+    private static final int SMALL_MASK = 7;
+
+    @Test
+    public void removeInsideWrappingChain() {
+        // Two keys homed on slot 6 fill slots 6 and 7, a key homed on 7
+        // wraps to slot 0 and a key homed on 0 is pushed to slot 1
+        long[] homedOn6 = keysWithHome(6, 2);
+        long homedOn7 = keysWithHome(7, 1)[0];
+        long homedOn0 = keysWithHome(0, 1)[0];
+
+        PackedTileMap map = new PackedTileMap(SMALL_EXPECTED);
+        map.put(homedOn6[0], 1);
+        map.put(homedOn6[1], 2);
+        map.put(homedOn7, 3);
+        map.put(homedOn0, 4);
+
+        // Removing the head shifts the rest of the run back across the wrap
+        assertEquals(1, map.remove(homedOn6[0]));
+        assertEquals(3, map.size());
+        assertEquals(PackedTileMap.NO_VALUE, map.get(homedOn6[0]));
+        assertEquals(2, map.get(homedOn6[1]));
+        assertEquals(3, map.get(homedOn7));
+        assertEquals(4, map.get(homedOn0));
+
+        // Removing the wrapped entry keeps the one behind it reachable
+        assertEquals(3, map.remove(homedOn7));
+        assertEquals(2, map.get(homedOn6[1]));
+        assertEquals(4, map.get(homedOn0));
+        assertEquals(PackedTileMap.NO_VALUE, map.remove(homedOn7));
+
+        map.put(homedOn6[0], 5);
+        assertEquals(5, map.get(homedOn6[0]));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    public void growsPastHalfFull() {
+        PackedTileMap map = new PackedTileMap(SMALL_EXPECTED);
+        for (int i = 0; i < 1000; i++) {
+            map.put(PackedTileMap.pack(3200 + i % 40, 3200 + i / 40, i % 4), i);
+        }
+
+        assertEquals(1000, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, map.get(PackedTileMap.pack(3200 + i % 40, 3200 + i / 40, i % 4)));
+        }
+        assertFalse(map.containsKey(PackedTileMap.pack(3200, 3200 + 25, 0)));
+    }
+
+    @Test
+    public void packKeepsNegativeCoordinatesOutOfThePlane() {
+        long key = PackedTileMap.pack(-1, -1, 0);
+        assertEquals(0, key >>> 40);
+        assertNotEquals(PackedTileMap.pack(0, 0, 1), key);
+
+        assertNotEquals(PackedTileMap.pack(-1, 5, 2), PackedTileMap.pack(5, -1, 2));
+        assertNotEquals(PackedTileMap.pack(-1, 0, 0), PackedTileMap.pack(1, 0, 0));
+        assertNotEquals(PackedTileMap.pack(0, -1, 0), PackedTileMap.pack(0, 1, 0));
+        for (int plane = 0; plane < 4; plane++) {
+            assertEquals(plane, PackedTileMap.pack(-3, -7, plane) >>> 40);
+            assertEquals(plane, PackedTileMap.pack(0xFFFFF, 0xFFFFF, plane) >>> 40);
+        }
+
+        PackedTileMap map = new PackedTileMap(SMALL_EXPECTED);
+        map.put(PackedTileMap.pack(-1, -1, 0), 1);
+        map.put(PackedTileMap.pack(-1, -1, 1), 2);
+        assertEquals(1, map.get(PackedTileMap.pack(-1, -1, 0)));
+        assertEquals(2, map.get(PackedTileMap.pack(-1, -1, 1)));
+        assertFalse(map.containsKey(PackedTileMap.pack(1, 1, 0)));
+    }
+
+    @Test
+    public void addRemovesKeysReachingZero() {
+        PackedTileMap map = new PackedTileMap(SMALL_EXPECTED);
+        long key = PackedTileMap.pack(10, 20, 0);
+
+        assertEquals(1, map.add(key, 1));
+        assertEquals(2, map.add(key, 1));
+        assertEquals(1, map.add(key, -1));
+        assertEquals(0, map.add(key, -1));
+        assertFalse(map.containsKey(key));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void matchesHashMapUnderChurn() {
+        PackedTileMap map = new PackedTileMap(SMALL_EXPECTED);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(25);
+
+        // Few distinct keys in a small area keep probe runs long and wrapping
+        for (int i = 0; i < 20000; i++) {
+            long key = PackedTileMap.pack(random.nextInt(12) - 2, random.nextInt(12) - 2, random.nextInt(2));
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? PackedTileMap.NO_VALUE : removed, map.remove(key));
+            } else {
+                expected.put(key, i);
+                map.put(key, i);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals((int) entry.getValue(), map.get(entry.getKey()));
+        }
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(expected.keySet().iterator().next()));
+    }
+
+    // Tile keys whose home slot in an 8 slot map is the given slot
+    private static long[] keysWithHome(int slot, int count) {
+        long[] keys = new long[count];
+        int found = 0;
+        for (int x = 0; found < count; x++) {
+            long key = PackedTileMap.pack(x, 0, 0);
+            if (homeSlot(key) == slot) {
+                keys[found++] = key;
+            }
+        }
+        return keys;
+    }
+
+    // Mirrors PackedTileMap.hash
+    private static int homeSlot(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key & SMALL_MASK;
+    }
+}
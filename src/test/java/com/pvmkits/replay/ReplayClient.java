@@ -0,0 +1,290 @@
+package com.pvmkits.replay;
+
+import com.pvmkits.core.NpcStateTable;
+import net.runelite.api.Client;
+import net.runelite.api.GameObject;
+import net.runelite.api.GameState;
+import net.runelite.api.IndexedObjectSet;
+import net.runelite.api.NPC;
+import net.runelite.api.WorldView;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldPoint;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal stand-in for the RuneLite client, built from dynamic proxies. Only
+ * answers what boss handlers, the scene snapshot and tile projection ask for
+ * (tick count, game state, the top level NPC list, NPC fields, flat terrain
+ * and a fixed camera); everything else returns a default value.
+ */
+public class ReplayClient {
+
+    private static final int TOP_LEVEL_WORLD_VIEW = -1;
+
+    // Flat terrain and a fixed camera above the scene center, enough for
+    // overlays to project tiles when rendering offscreen
+    private static final int SCENE_SIZE = 184;
+    public static final int SCENE_CENTER = SCENE_SIZE * 128 / 2;
+    private static final int CAMERA_PITCH = 383;
+    private static final int CAMERA_HEIGHT = -1600;
+    private static final int CAMERA_DISTANCE = 1200;
+    private static final int CAMERA_SCALE = 512;
+    private static final int VIEWPORT_WIDTH = 765;
+    private static final int VIEWPORT_HEIGHT = 503;
+    private static final int[][][] TILE_HEIGHTS = new int[4][SCENE_SIZE + 1][SCENE_SIZE + 1];
+    private static final byte[][][] TILE_SETTINGS = new byte[4][SCENE_SIZE][SCENE_SIZE];
+
+    /**
+     * Mutable state behind one fake NPC
+     */
+    public static final class ReplayNpc {
+        public final int index;
+        public int id;
+        public int x;
+        public int y;
+        public int animation = -1;
+        public int graphic = -1;
+        boolean live;
+        boolean seenThisTick;
+        public final NPC proxy;
+
+        ReplayNpc(int index) {
+            this.index = index;
+            this.proxy = proxy(NPC.class, (p, method, args) -> {
+                switch (method.getName()) {
+                    case "getId":
+                        return id;
+                    case "getIndex":
+                        return this.index;
+                    case "getAnimation":
+                        return animation;
+                    case "getGraphic":
+                        return graphic;
+                    case "getLocalLocation":
+                        return new LocalPoint(x, y, TOP_LEVEL_WORLD_VIEW);
+                    default:
+                        return objectMethod(p, method.getName(), args);
+                }
+            });
+        }
+    }
+
+    private final ReplayNpc[] npcsByIndex = new ReplayNpc[NpcStateTable.MAX_NPC_INDEX];
+    private final List<ReplayNpc> liveNpcs = new ArrayList<>();
+    private int tickCount;
+    private int cameraYaw;
+
+    private final Client client;
+
+    public ReplayClient() {
+        IndexedObjectSet<NPC> npcSet = proxy(IndexedObjectSet.class, (p, method, args) -> {
+            switch (method.getName()) {
+                case "iterator":
+                    List<NPC> npcs = new ArrayList<>(liveNpcs.size());
+                    for (ReplayNpc npc : liveNpcs) {
+                        npcs.add(npc.proxy);
+                    }
+                    return npcs.iterator();
+                case "byIndex":
+                    ReplayNpc npc = getNpc((Integer) args[0]);
+                    return npc != null ? npc.proxy : null;
+                default:
+                    return objectMethod(p, method.getName(), args);
+            }
+        });
+
+        WorldView worldView = proxy(WorldView.class, (p, method, args) -> {
+            switch (method.getName()) {
+                case "npcs":
+                    return npcSet;
+                case "getTileHeights":
+                    return TILE_HEIGHTS;
+                case "getTileSettings":
+                    return TILE_SETTINGS;
+                default:
+                    return objectMethod(p, method.getName(), args);
+            }
+        });
+
+        client = proxy(Client.class, (p, method, args) -> {
+            switch (method.getName()) {
+                case "getTickCount":
+                    return tickCount;
+                case "getGameState":
+                    return GameState.LOGGED_IN;
+                case "getTopLevelWorldView":
+                case "getWorldView":
+                    return worldView;
+                case "getTileHeights":
+                    return TILE_HEIGHTS;
+                case "getTileSettings":
+                    return TILE_SETTINGS;
+                case "getCameraX":
+                    return SCENE_CENTER;
+                case "getCameraY":
+                    return SCENE_CENTER - CAMERA_DISTANCE;
+                case "getCameraZ":
+                    return CAMERA_HEIGHT;
+                case "getCameraPitch":
+                    return CAMERA_PITCH;
+                case "getCameraYaw":
+                    return cameraYaw;
+                case "getScale":
+                    return CAMERA_SCALE;
+                case "getViewportWidth":
+                case "getCanvasWidth":
+                    return VIEWPORT_WIDTH;
+                case "getViewportHeight":
+                case "getCanvasHeight":
+                    return VIEWPORT_HEIGHT;
+                case "isClientThread":
+                    return true;
+                default:
+                    return objectMethod(p, method.getName(), args);
+            }
+        });
+    }
+
+    public Client getClient() {
+        return client;
+    }
+
+    public void setTickCount(int tickCount) {
+        this.tickCount = tickCount;
+    }
+
+    /**
+     * Rotate the fake camera, e.g. to defeat per-camera caches when rendering
+     */
+    public void setCameraYaw(int cameraYaw) {
+        this.cameraYaw = cameraYaw;
+    }
+
+    /**
+     * Get the NPC at the given index, or null if it is not in the scene
+     */
+    public ReplayNpc getNpc(int index) {
+        ReplayNpc npc = index >= 0 && index < npcsByIndex.length ? npcsByIndex[index] : null;
+        return npc != null && npc.live ? npc : null;
+    }
+
+    /**
+     * Start applying a tick record: every NPC not seen again before
+     * {@link #endTick()} is removed from the scene
+     */
+    public void beginTick() {
+        for (ReplayNpc npc : liveNpcs) {
+            npc.seenThisTick = false;
+        }
+    }
+
+    public ReplayNpc seeNpc(int index) {
+        ReplayNpc npc = npcsByIndex[index];
+        if (npc == null) {
+            npc = new ReplayNpc(index);
+            npcsByIndex[index] = npc;
+        }
+        if (!npc.live) {
+            npc.live = true;
+            liveNpcs.add(npc);
+        }
+        npc.seenThisTick = true;
+        return npc;
+    }
+
+    public void endTick() {
+        liveNpcs.removeIf(npc -> {
+            npc.live = npc.seenThisTick;
+            return !npc.live;
+        });
+    }
+
+    /**
+     * Remove an NPC from the scene between tick records
+     */
+    public void removeNpc(int index) {
+        ReplayNpc npc = getNpc(index);
+        if (npc != null) {
+            npc.live = false;
+            liveNpcs.remove(npc);
+        }
+    }
+
+    public void clear() {
+        for (ReplayNpc npc : liveNpcs) {
+            npc.live = false;
+        }
+        liveNpcs.clear();
+        tickCount = 0;
+    }
+
+    public static GameObject gameObject(int id, WorldPoint location) {
+        return proxy(GameObject.class, (p, method, args) -> {
+            switch (method.getName()) {
+                case "getId":
+                    return id;
+                case "getWorldLocation":
+                    return location;
+                case "getPlane":
+                    return location.getPlane();
+                default:
+                    return objectMethod(p, method.getName(), args);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<?> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(ReplayClient.class.getClassLoader(), new Class<?>[] { type },
+                (p, method, args) -> {
+                    Object result = handler.invoke(p, method, args);
+                    return result != null ? result : defaultValue(method.getReturnType());
+                });
+    }
+
+    // Identity semantics for Object methods, null for everything unanswered
+    private static Object objectMethod(Object proxy, String name, Object[] args) {
+        switch (name) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Replay" + proxy.getClass().getInterfaces()[0].getSimpleName();
+            default:
+                return null;
+        }
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == char.class) {
+            return (char) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,274 @@
+package com.pvmkits.replay;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.pvmkits.bosses.phosani.PhosaniHandler;
+import com.pvmkits.bosses.yama.YamaHandler;
+import com.pvmkits.core.BossHandler;
+import com.pvmkits.core.EventInterest;
+import com.pvmkits.core.NpcStateTable;
+import com.pvmkits.core.RecordingFormat;
+import com.pvmkits.core.SceneSnapshot;
+import com.pvmkits.core.TickTrace;
+import net.runelite.api.Client;
+import net.runelite.api.GameObject;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.AnimationChanged;
+import net.runelite.api.events.GameObjectDespawned;
+import net.runelite.api.events.GameObjectSpawned;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.GraphicChanged;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Feeds fights recorded with ::pvmrecord into a boss handler headlessly, as
+ * fast as the handler can take them. Dispatch mirrors PvmKitsPlugin: the
+ * handler is bound to the scene snapshot and events are filtered through its
+ * declared IDs.
+ *
+ * Usage: ReplayEngine &lt;yama|phosani|handler class&gt; [--repeat N] [--trace]
+ * recording...
+ */
+public class ReplayEngine {
+
+    private static final GameTick GAME_TICK = new GameTick();
+
+    private final ReplayClient replayClient;
+    private final BossHandler handler;
+    private final SceneSnapshot sceneSnapshot;
+    private final TickTrace tickTrace;
+    private final EventInterest eventInterest;
+
+    private int ticks;
+    private int events;
+
+    public ReplayEngine(Class<? extends BossHandler> handlerClass) {
+        replayClient = new ReplayClient();
+        Injector injector = Guice.createInjector(
+                binder -> binder.bind(Client.class).toInstance(replayClient.getClient()));
+        handler = injector.getInstance(handlerClass);
+        sceneSnapshot = injector.getInstance(SceneSnapshot.class);
+        tickTrace = injector.getInstance(TickTrace.class);
+        eventInterest = EventInterest.of(handler);
+    }
+
+    public BossHandler getHandler() {
+        return handler;
+    }
+
+    public TickTrace getTickTrace() {
+        return tickTrace;
+    }
+
+    public int getTicks() {
+        return ticks;
+    }
+
+    public int getEvents() {
+        return events;
+    }
+
+    /**
+     * Replay one recording from a clean handler state
+     */
+    public void replay(File recording) throws IOException {
+        handler.reset();
+        replayClient.clear();
+        sceneSnapshot.bind(handler);
+
+        int[] npcX = new int[NpcStateTable.MAX_NPC_INDEX];
+        int[] npcY = new int[NpcStateTable.MAX_NPC_INDEX];
+        int objectX = 0;
+        int objectY = 0;
+        int tick = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(recording)))) {
+            if (in.readInt() != RecordingFormat.MAGIC || in.readUnsignedByte() != RecordingFormat.VERSION) {
+                throw new IOException(recording + " is not a supported recording");
+            }
+
+            while (true) {
+                int type;
+                try {
+                    type = in.readUnsignedByte();
+                } catch (EOFException e) {
+                    break;
+                }
+
+                switch (type) {
+                    case RecordingFormat.TICK: {
+                        tick += RecordingFormat.readVarInt(in);
+                        int npcCount = RecordingFormat.readVarInt(in);
+
+                        replayClient.beginTick();
+                        for (int i = 0; i < npcCount; i++) {
+                            int index = RecordingFormat.readVarInt(in);
+                            ReplayClient.ReplayNpc npc = replayClient.seeNpc(index);
+                            npc.id = RecordingFormat.readVarInt(in);
+                            npcX[index] += RecordingFormat.readZigZag(in);
+                            npcY[index] += RecordingFormat.readZigZag(in);
+                            npc.x = npcX[index];
+                            npc.y = npcY[index];
+                            npc.animation = RecordingFormat.readVarInt(in) - 1;
+                            npc.graphic = RecordingFormat.readVarInt(in) - 1;
+                        }
+                        replayClient.endTick();
+
+                        replayClient.setTickCount(tick);
+                        tickTrace.setTick(tick);
+                        sceneSnapshot.update(replayClient.getClient());
+                        handler.onGameTick(GAME_TICK);
+                        ticks++;
+                        break;
+                    }
+                    case RecordingFormat.ANIMATION: {
+                        ReplayClient.ReplayNpc npc = replayClient.getNpc(RecordingFormat.readVarInt(in));
+                        int animation = RecordingFormat.readVarInt(in) - 1;
+                        // Events for NPCs not yet seen in a tick record cannot be replayed
+                        if (npc != null && eventInterest.isInterestedInNpc(npc.id)) {
+                            npc.animation = animation;
+                            if (eventInterest.isInterestedInAnimation(animation)) {
+                                AnimationChanged event = new AnimationChanged();
+                                event.setActor(npc.proxy);
+                                handler.onAnimationChanged(event);
+                            }
+                        }
+                        events++;
+                        break;
+                    }
+                    case RecordingFormat.GRAPHIC: {
+                        ReplayClient.ReplayNpc npc = replayClient.getNpc(RecordingFormat.readVarInt(in));
+                        int graphic = RecordingFormat.readVarInt(in) - 1;
+                        if (npc != null && eventInterest.isInterestedInNpc(npc.id)) {
+                            npc.graphic = graphic;
+                            if (eventInterest.isInterestedInGraphic(graphic)) {
+                                GraphicChanged event = new GraphicChanged();
+                                event.setActor(npc.proxy);
+                                handler.onGraphicChanged(event);
+                            }
+                        }
+                        events++;
+                        break;
+                    }
+                    case RecordingFormat.OBJECT_SPAWNED:
+                    case RecordingFormat.OBJECT_DESPAWNED: {
+                        int objectId = RecordingFormat.readVarInt(in);
+                        objectX += RecordingFormat.readZigZag(in);
+                        objectY += RecordingFormat.readZigZag(in);
+                        int plane = RecordingFormat.readVarInt(in);
+                        if (eventInterest.isInterestedInGameObject(objectId)) {
+                            GameObject object = ReplayClient.gameObject(objectId, new WorldPoint(objectX, objectY, plane));
+                            if (type == RecordingFormat.OBJECT_SPAWNED) {
+                                GameObjectSpawned event = new GameObjectSpawned();
+                                event.setGameObject(object);
+                                handler.onGameObjectSpawned(event);
+                            } else {
+                                GameObjectDespawned event = new GameObjectDespawned();
+                                event.setGameObject(object);
+                                handler.onGameObjectDespawned(event);
+                            }
+                        }
+                        events++;
+                        break;
+                    }
+                    case RecordingFormat.NPC_SPAWNED: {
+                        int index = RecordingFormat.readVarInt(in);
+                        ReplayClient.ReplayNpc npc = replayClient.seeNpc(index);
+                        npc.id = RecordingFormat.readVarInt(in);
+                        npc.x = npcX[index];
+                        npc.y = npcY[index];
+                        npc.animation = -1;
+                        npc.graphic = -1;
+                        sceneSnapshot.npcSpawned(npc.proxy);
+                        handler.onNpcSpawned(npc.proxy);
+                        events++;
+                        break;
+                    }
+                    case RecordingFormat.NPC_DESPAWNED: {
+                        int index = RecordingFormat.readVarInt(in);
+                        ReplayClient.ReplayNpc npc = replayClient.getNpc(index);
+                        if (npc != null) {
+                            handler.onNpcDespawned(npc.proxy);
+                            sceneSnapshot.npcDespawned(npc.proxy);
+                            replayClient.removeNpc(index);
+                        }
+                        events++;
+                        break;
+                    }
+                    default:
+                        throw new IOException("Unknown record type " + type + " in " + recording);
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: ReplayEngine <yama|phosani|handler class> [--repeat N] [--trace] recording...");
+            System.exit(1);
+        }
+
+        ReplayEngine engine = new ReplayEngine(resolveHandler(args[0]));
+        int repeat = 1;
+        boolean trace = false;
+        int totalTicks = 0;
+        int totalEvents = 0;
+        long totalNanos = 0;
+
+        for (int i = 1; i < args.length; i++) {
+            if ("--repeat".equals(args[i])) {
+                repeat = Integer.parseInt(args[++i]);
+                continue;
+            }
+            if ("--trace".equals(args[i])) {
+                trace = true;
+                continue;
+            }
+
+            File recording = new File(args[i]);
+            for (int run = 0; run < repeat; run++) {
+                engine.ticks = 0;
+                engine.events = 0;
+                engine.tickTrace.clear();
+
+                long start = System.nanoTime();
+                engine.replay(recording);
+                long elapsed = System.nanoTime() - start;
+
+                totalTicks += engine.ticks;
+                totalEvents += engine.events;
+                totalNanos += elapsed;
+            }
+
+            System.out.printf("%s: %d ticks, %d events%n", recording, engine.ticks, engine.events);
+            if (trace) {
+                // Trace of the last run only, for diffing between builds
+                for (String line : engine.tickTrace.format(engine.tickTrace.size())) {
+                    System.out.println("  " + line);
+                }
+            }
+        }
+
+        int records = Math.max(1, totalTicks + totalEvents);
+        System.out.printf("Replayed %d ticks and %d events in %.1f ms (%d ns per record)%n",
+                totalTicks, totalEvents, totalNanos / 1e6, totalNanos / records);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends BossHandler> resolveHandler(String name) throws ClassNotFoundException {
+        switch (name.toLowerCase()) {
+            case "yama":
+                return YamaHandler.class;
+            case "phosani":
+                return PhosaniHandler.class;
+            default:
+                return (Class<? extends BossHandler>) Class.forName(name);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.pvmkits.replay;
+
+import com.pvmkits.bosses.phosani.PhosaniHandler;
+import com.pvmkits.bosses.yama.YamaHandler;
+import com.pvmkits.core.BossFrameState;
+import com.pvmkits.core.TrackedNpcSet;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Replays the short fixture recordings next to this class and checks the
+ * handler's trace, final state and last published frame. A change to attack timing or event
+ * handling shows up here as a trace diff.
+ *
+ * yama.pvmr: Yama (index 5) spawns before tick 1000. It attacks on 1001 with
+ * the melee/orb animation and the mage graphic, enrages with two graphics on
+ * 1008 and 1009 and attacks again on 1009.
+ *
+ * phosani.pvmr: Phosani (index 7) and a sleepwalker (index 20) spawn before
+ * tick 2000. Phosani curses on 2000 and attacks on 2001 with the mage
+ * animation and the range graphic; two spores spawn and one despawns on 2002.
+ * A husk (index 21) spawns on 2004, the sleepwalker despawns on 2007 and
+ * Phosani attacks with melee the same tick. The recording ends on 2010.
+ */
+public class ReplayEngineTest {
+
+    private static final List<String> YAMA_TRACE = Arrays.asList(
+            "tick 1000 TICK boss npcs=1",
+            "tick 1000 TIMER_INIT npc=5 timer=8",
+            "tick 1001 TICK boss npcs=1",
+            "tick 1001 ANIMATION npc=5 animation=12146",
+            "tick 1001 ATTACK npc=5 timer=8",
+            "tick 1001 GRAPHIC npc=5 graphic=3246",
+            "tick 1002 TICK boss npcs=1",
+            "tick 1003 TICK boss npcs=1",
+            "tick 1004 TICK boss npcs=1",
+            "tick 1005 TICK boss npcs=1",
+            "tick 1006 TICK boss npcs=1",
+            "tick 1007 TICK boss npcs=1",
+            "tick 1008 TICK boss npcs=1",
+            "tick 1008 GRAPHIC npc=5 graphic=3276",
+            "tick 1008 PHASE_TRANSITION npc=5 count=1",
+            "tick 1009 TICK boss npcs=1",
+            "tick 1009 GRAPHIC npc=5 graphic=3276",
+            "tick 1009 PHASE_TRANSITION npc=5 count=2",
+            "tick 1009 ATTACK npc=5 timer=7",
+            "tick 1010 TICK boss npcs=1");
+
+    private static final List<String> PHOSANI_TRACE = Arrays.asList(
+            "tick 2000 TICK boss npcs=1",
+            "tick 2000 TIMER_INIT npc=7 timer=6",
+            "tick 2000 ANIMATION npc=7 animation=8599",
+            "tick 2000 CURSE npc=7 attacks left=5",
+            "tick 2001 TICK boss npcs=1",
+            "tick 2001 ANIMATION npc=7 animation=8595",
+            "tick 2001 ATTACK npc=7 timer=6",
+            "tick 2001 CURSE npc=7 attacks left=4",
+            "tick 2001 GRAPHIC npc=7 graphic=1768",
+            "tick 2001 SPORE_SPAWNED object=37739",
+            "tick 2001 SPORE_SPAWNED object=37739",
+            "tick 2002 TICK boss npcs=1",
+            "tick 2002 SPORE_DESPAWNED object=37739",
+            "tick 2003 TICK boss npcs=1",
+            "tick 2004 TICK boss npcs=1",
+            "tick 2005 TICK boss npcs=1",
+            "tick 2006 TICK boss npcs=1",
+            "tick 2007 TICK boss npcs=1",
+            "tick 2007 ANIMATION npc=7 animation=8594",
+            "tick 2007 ATTACK npc=7 timer=6",
+            "tick 2007 CURSE npc=7 attacks left=3",
+            "tick 2008 TICK boss npcs=1",
+            "tick 2009 TICK boss npcs=1",
+            "tick 2010 TICK boss npcs=1");
+
+    @Test
+    public void replaysYamaFixture() throws Exception {
+        ReplayEngine engine = new ReplayEngine(YamaHandler.class);
+        engine.replay(fixture("yama.pvmr"));
+
+        assertEquals(11, engine.getTicks());
+        assertEquals(6, engine.getEvents());
+        assertEquals(YAMA_TRACE, trace(engine));
+
+        YamaHandler handler = (YamaHandler) engine.getHandler();
+        assertEquals(1, handler.getYamaNpcs().size());
+        assertEquals(YamaHandler.YamaPhase.MELEE, handler.getYamaPhase(5));
+        assertEquals(6, handler.getYamaAttackTimer(5));
+        assertTrue(handler.isYamaInEnragePhase(5));
+
+        BossFrameState frame = handler.getFrameState();
+        assertEquals(1010, frame.getTick());
+        assertEquals(1, frame.size());
+        assertEquals(YamaHandler.YamaPhase.MELEE.ordinal(), frame.getPhase(0));
+        assertEquals(6, frame.getAttackTimer(0));
+    }
+
+    @Test
+    public void replaysPhosaniFixture() throws Exception {
+        ReplayEngine engine = new ReplayEngine(PhosaniHandler.class);
+        engine.replay(fixture("phosani.pvmr"));
+
+        assertEquals(11, engine.getTicks());
+        assertEquals(11, engine.getEvents());
+        assertEquals(PHOSANI_TRACE, trace(engine));
+
+        PhosaniHandler handler = (PhosaniHandler) engine.getHandler();
+        assertEquals(PhosaniHandler.PhosaniPhase.MELEE, handler.getPhosaniPhase(7));
+        // Cursed: click Protect from Missiles to get melee protection
+        assertEquals(PhosaniHandler.PhosaniPhase.RANGE, handler.getEffectivePhase(7));
+        assertEquals(3, handler.getPhosaniCurseAttacksRemaining(7));
+        assertEquals(3, handler.getPhosaniAttackTimer(7));
+
+        BossFrameState frame = handler.getFrameState();
+        assertEquals(2010, frame.getTick());
+        assertEquals(1, frame.size());
+        assertEquals(PhosaniHandler.PhosaniPhase.RANGE.ordinal(), frame.getEffectivePhase(0));
+        assertEquals(3, frame.getAttackTimer(0));
+        assertEquals(3, frame.getCurseAttacks(0));
+
+        // The sleepwalker despawned; the husk spawned mid-recording is tracked
+        // from its spawn record
+        assertTrue(handler.getSleepwalkerNpcs().isEmpty());
+        TrackedNpcSet husks = handler.getHuskNpcs();
+        assertEquals(1, husks.size());
+        assertEquals(21, husks.get(0).getIndex());
+
+        // The despawned spore is gone
+        assertEquals(Collections.singletonList(new WorldPoint(3870, 9950, 3)),
+                handler.getSporeDangerZones().getLocations());
+    }
+
+    @Test
+    public void replayStartsFromCleanState() throws Exception {
+        ReplayEngine engine = new ReplayEngine(PhosaniHandler.class);
+        engine.replay(fixture("phosani.pvmr"));
+        engine.getTickTrace().clear();
+        engine.replay(fixture("phosani.pvmr"));
+
+        assertEquals(PHOSANI_TRACE, trace(engine));
+        assertEquals(1, ((PhosaniHandler) engine.getHandler()).getHuskNpcs().size());
+    }
+
+    private static File fixture(String name) throws Exception {
+        return new File(ReplayEngineTest.class.getResource(name).toURI());
+    }
+
+    private static List<String> trace(ReplayEngine engine) {
+        return engine.getTickTrace().format(engine.getTickTrace().size());
+    }
+}